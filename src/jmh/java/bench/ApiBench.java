@@ -0,0 +1,36 @@
+package bench;
+
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiBench {
+
+    @Param({"1", "10", "100", "1000"})
+    int qty;
+
+    String users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Subject.useStub();
+        users = Subject.endpoint("USERS");
+    }
+
+    @Benchmark
+    public Object build() throws Throwable {
+        Object req = Subject.NEW_REQUEST.invoke(users);
+        req = Subject.LOCALE.invoke(req, "en_US");
+        req = Subject.QTY.invoke(req, qty);
+        req = Subject.SEED.invoke(req, 12345);
+        return Subject.PARAM.invoke(req, "_gender", (Object) "male");
+    }
+
+    @Benchmark
+    public Response send() throws Throwable {
+        return Subject.send(Subject.request(users, qty));
+    }
+}
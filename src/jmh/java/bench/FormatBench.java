@@ -0,0 +1,74 @@
+package bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Formats scanners vs the regexes they replace, over 1000 real field values from the Stub.
+// Both return how many values passed, so the JIT can't drop either loop.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatBench {
+
+    @Param({"UUID", "IPV4", "MAC", "EMAIL", "PHONE", "URL", "EAN13", "UPCA"})
+    String kind;
+
+    String[] values;
+    Object scanner;
+    Pattern regex;
+    boolean checksum;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        Subject.useStub();
+        String[] source = switch (kind) {
+            case "UUID" -> new String[]{"USERS", "uuid"};
+            case "IPV4" -> new String[]{"USERS", "ip"};
+            case "MAC" -> new String[]{"USERS", "macAddress"};
+            case "EMAIL" -> new String[]{"USERS", "email"};
+            case "PHONE" -> new String[]{"COMPANIES", "phone"};
+            case "URL" -> new String[]{"COMPANIES", "website"};
+            case "EAN13" -> new String[]{"PRODUCTS", "ean"};
+            default -> new String[]{"PRODUCTS", "upc"};
+        };
+        JsonNode data = new ObjectMapper().readTree(Subject.send(Subject.request(Subject.endpoint(source[0]), 1000)).asByteArray()).path("data");
+        values = new String[data.size()];
+        for (int i = 0; i < values.length; i++) values[i] = data.get(i).path(source[1]).asText();
+        scanner = Subject.formatKind(kind);
+        regex = Pattern.compile(switch (kind) {
+            case "UUID" -> "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
+            case "IPV4" -> "^((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)$";
+            case "MAC" -> "^[0-9A-Fa-f]{2}([:-])(?:[0-9A-Fa-f]{2}\\1){4}[0-9A-Fa-f]{2}$";
+            case "EMAIL" -> "^[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+(\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*@([A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?\\.)+[A-Za-z]{2,}$";
+            case "PHONE" -> "^\\+\\d(?:[ ().-]?\\d){6,14}$";
+            case "URL" -> "^https?://[A-Za-z0-9]([A-Za-z0-9.-]*[A-Za-z0-9])?(:\\d{1,5})?([/?#][!-~]*)?$";
+            case "EAN13" -> "^\\d{13}$";
+            default -> "^\\d{12}$";
+        });
+        checksum = kind.startsWith("EAN") || kind.equals("UPCA");
+    }
+
+    @Benchmark
+    public int regex() {
+        int ok = 0;
+        for (String v : values) if (regex.matcher(v).matches() && (!checksum || gs1(v))) ok++;
+        return ok;
+    }
+
+    @Benchmark
+    public int scanner() throws Throwable {
+        int ok = 0;
+        for (String v : values) if ((boolean) Subject.FORMAT_TEST.invoke(scanner, (CharSequence) v)) ok++;
+        return ok;
+    }
+
+    // What a regex can't express: the check digit, done the usual way on top of the match
+    private static boolean gs1(String v) {
+        int sum = 0, n = v.length();
+        for (int i = n - 2, w = 3; i >= 0; i--, w = 4 - w) sum += Character.getNumericValue(v.charAt(i)) * w;
+        return Character.getNumericValue(v.charAt(n - 1)) == (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,63 @@
+package bench;
+
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBench {
+
+    @Param({"1", "10", "100", "1000"})
+    int qty;
+
+    Response res;
+    byte[] body;
+    String schema;
+    Object root, check;
+
+    // One real response per payload size, fetched from the in-process Stub
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        Subject.useStub();
+        res = Subject.send(Subject.request(Subject.endpoint("COMPANIES"), qty));
+        body = res.asByteArray();
+        schema = Subject.SCHEMAS + "company-schema.json";
+        root = Subject.ROOT.invoke(Subject.PARSE.invoke(body));
+        check = Subject.SCHEMA_FAST.invoke(schema);
+    }
+
+    @Benchmark
+    public boolean hasFields() throws Throwable {
+        return (boolean) Subject.HAS_FIELDS.invoke(res, new String[]{"status", "code", "total", "data"});
+    }
+
+    @Benchmark
+    public void assertSchema() throws Throwable {
+        Subject.ASSERT_SCHEMA.invoke(res, schema);
+    }
+
+    // Same parsed tree, generic validator vs the class SchemaGen generated for the schema
+    @Benchmark
+    public Object schemaReference() throws Throwable {
+        return Subject.SCHEMA_REFERENCE.invoke(root, schema);
+    }
+
+    @Benchmark
+    public Object schemaGenerated() throws Throwable {
+        return Subject.CHECK.invoke(check, root);
+    }
+
+    // What BaseTest.assertCount did before Payload: a fresh JsonPath per call
+    @Benchmark
+    public int jsonPathCount() {
+        return res.jsonPath().getList("data").size();
+    }
+
+    // What it does now on a cold response: one Jackson parse of the raw bytes
+    @Benchmark
+    public int payloadCount() throws Throwable {
+        return (int) Subject.COUNT.invoke(Subject.PARSE.invoke(body));
+    }
+}
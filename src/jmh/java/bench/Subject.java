@@ -0,0 +1,74 @@
+package bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// JMH refuses benchmarks in the default package, and named packages can't import Api/Json from it.
+// Constant method handles bridge the gap and are inlined by the JIT like direct calls.
+final class Subject {
+
+    static final String SCHEMAS = "src/test/resources/schemas/";
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    static final MethodHandle NEW_REQUEST = constructor("Api$Request", String.class);
+    static final MethodHandle LOCALE = method("Api$Request", "locale", "Api$Request", String.class);
+    static final MethodHandle QTY = method("Api$Request", "qty", "Api$Request", int.class);
+    static final MethodHandle SEED = method("Api$Request", "seed", "Api$Request", int.class);
+    static final MethodHandle PARAM = method("Api$Request", "param", "Api$Request", String.class, Object.class);
+    static final MethodHandle SEND = method("Api$Request", "send", Response.class);
+    static final MethodHandle HAS_FIELDS = staticMethod("Json", "hasFields", boolean.class, Response.class, String[].class);
+    static final MethodHandle ASSERT_SCHEMA = staticMethod("Json", "assertSchema", void.class, Response.class, String.class);
+    static final MethodHandle PARSE = staticMethod("Payload", "parse", "Payload", byte[].class);
+    static final MethodHandle COUNT = method("Payload", "count", int.class);
+    static final MethodHandle ROOT = method("Payload", "root", JsonNode.class);
+    static final MethodHandle SCHEMA_REFERENCE = staticMethod("Schemas", "reference", String.class, JsonNode.class, String.class);
+    static final MethodHandle SCHEMA_FAST = staticMethod("Schemas", "fast", "Schemas$Check", String.class);
+    static final MethodHandle CHECK = method("Schemas$Check", "validate", String.class, JsonNode.class);
+    static final MethodHandle FORMAT_TEST = method("Formats$Kind", "test", boolean.class, CharSequence.class);
+
+    static String endpoint(String name) {
+        try { return (String) cls("Api").getField(name).get(null); }
+        catch (ReflectiveOperationException e) { throw new IllegalStateException(e); }
+    }
+
+    // Point Api at an in-process Stub before Api initializes its BASE; sharing off so every send hits the wire
+    static void useStub() {
+        System.setProperty("api.base", "stub");
+        System.setProperty("api.share", "off");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object formatKind(String name) { return Enum.valueOf((Class) cls("Formats$Kind"), name); }
+
+    static Object request(String endpoint, int qty) throws Throwable {
+        return QTY.invoke(NEW_REQUEST.invoke(endpoint), qty);
+    }
+
+    static Response send(Object request) throws Throwable { return (Response) SEND.invoke(request); }
+
+    private static Class<?> cls(String name) {
+        try { return Class.forName(name, false, Subject.class.getClassLoader()); }
+        catch (ClassNotFoundException e) { throw new IllegalStateException(e); }
+    }
+
+    private static Class<?> type(Object t) { return t instanceof String s ? cls(s) : (Class<?>) t; }
+
+    private static MethodHandle constructor(String owner, Class<?>... args) {
+        try { return lookup.findConstructor(cls(owner), MethodType.methodType(void.class, args)); }
+        catch (ReflectiveOperationException e) { throw new IllegalStateException(e); }
+    }
+
+    private static MethodHandle method(String owner, String name, Object ret, Class<?>... args) {
+        try { return lookup.findVirtual(cls(owner), name, MethodType.methodType(type(ret), args)); }
+        catch (ReflectiveOperationException e) { throw new IllegalStateException(e); }
+    }
+
+    private static MethodHandle staticMethod(String owner, String name, Object ret, Class<?>... args) {
+        try { return lookup.findStatic(cls(owner), name, MethodType.methodType(type(ret), args)); }
+        catch (ReflectiveOperationException e) { throw new IllegalStateException(e); }
+    }
+}
@@ -1,34 +1,253 @@
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Api {
     
-    public static final String BASE = "https://fakerapi.it/api/v2";
+    public static final String LIVE = "https://fakerapi.it/api/v2";
+    // -Dapi.base=stub starts the in-process Stub; any other value is used as the base URL
+    public static final String BASE = base(System.getProperty("api.base", LIVE));
     public static final String PRODUCTS = "/products";
     public static final String USERS = "/users";
     public static final String COMPANIES = "/companies";
     public static final String IMAGES = "/images";
     public static final int DEFAULT_QTY = 10;
     public static final int MAX_QTY = 1000;
+    public static final int MAX_CONCURRENT = Integer.getInteger("api.maxConcurrent", 4);
+    // off: every call hits the network; class: identical requests share one response until the test class
+    // finishes (forget); run: until the JVM exits. Only seeded requests share unless they opt in with shared()
+    public static final String SHARE = System.getProperty("api.share", "class");
+    // Per attempt: connecting, and the longest silence while reading; per call: everything including retries
+    public static final Timeouts TIMEOUTS = new Timeouts(Duration.parse(System.getProperty("api.timeout.connect", "PT5S")),
+            Duration.parse(System.getProperty("api.timeout.read", "PT10S")), Duration.parse(System.getProperty("api.timeout.total", "PT30S")));
 
-    public static Response get(String endpoint, Map<String, Object> params) {
-        var req = RestAssured.given().baseUri(BASE).contentType("application/json");
-        if (params != null && !params.isEmpty()) req.queryParams(params);
-        return req.get(endpoint);
+    // Caps in-flight requests per endpoint so parallel test runs don't get throttled
+    private static final Map<String, Semaphore> limits = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Response>> flights = new ConcurrentHashMap<>();
+    private static final LongAdder coalesced = new LongAdder();
+
+    // Single flight: the first caller for a key makes the request, identical concurrent and later callers
+    // get the same (fully buffered) Response. Anything but a 200 is handed to waiters but not kept.
+    public static Response shared(String endpoint, Map<String, Object> params) { return shared(endpoint, params, TIMEOUTS); }
+
+    public static Response shared(String endpoint, Map<String, Object> params, Timeouts timeouts) {
+        String key = key(endpoint, params);
+        CompletableFuture<Response> mine = new CompletableFuture<>();
+        CompletableFuture<Response> flight = flights.putIfAbsent(key, mine);
+        if (flight != null) {
+            coalesced.increment();
+            try { return flight.join(); }
+            catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                if (e.getCause() instanceof Error err) throw err;
+                throw e;
+            }
+        }
+        try {
+            Response res = get(endpoint, params, timeouts);
+            if (res.statusCode() != 200) flights.remove(key, mine);
+            mine.complete(res);
+            return res;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Drops the shared responses for one endpoint (class scope), or all of them
+    public static void forget(String endpoint) {
+        flights.keySet().removeIf(k -> k.equals(endpoint) || k.startsWith(endpoint + "?"));
+    }
+
+    public static void forgetAll() { flights.clear(); }
+
+    // Calls answered by another caller's request
+    public static long coalesced() { return coalesced.sum(); }
+
+    public static Response get(String endpoint, Map<String, Object> params) { return get(endpoint, params, TIMEOUTS); }
+
+    // Paced by the endpoint's Throttle; 429, transient 5xx and I/O failures are retried (see Retry) until the
+    // total deadline. Fails at once with Circuit.Open while the endpoint's circuit is open.
+    public static Response get(String endpoint, Map<String, Object> params, Timeouts timeouts) {
+        Response taped = Tape.replay(endpoint, params);
+        if (taped != null) return taped;
+        Throttle throttle = Throttle.of(endpoint);
+        Circuit circuit = Circuit.of(endpoint);
+        long deadline = System.nanoTime() + timeouts.total().toNanos();
+        Retry.sent();
+        for (int attempt = 0; ; attempt++) {
+            // Only the call is gated: once it got through (perhaps as the probe), its retries go out too
+            if (attempt == 0) circuit.allow();
+            throttle.acquire();
+            // Waiting for our own per-endpoint cap is local queueing, not the endpoint being slow: it doesn't
+            // count against the deadline, so a healthy endpoint behind a long queue can't trip its own circuit
+            Semaphore limit = limits.computeIfAbsent(endpoint, Api::limitFor);
+            long queued = System.nanoTime();
+            limit.acquireUninterruptibly();
+            deadline += System.nanoTime() - queued;
+            Response res = null;
+            RuntimeException e = null;
+            try { res = send(endpoint, params, timeouts, deadline); }
+            catch (RuntimeException failed) { e = failed; }
+            finally { limit.release(); }
+            if (e != null) {
+                circuit.failure(e instanceof DeadlineExceeded ? "deadline of " + timeouts.total() + " exceeded" : describe(e));
+                if (e instanceof DeadlineExceeded) throw e;
+                if (System.nanoTime() >= deadline) throw new DeadlineExceeded(endpoint, params, timeouts.total(), attempt + 1, e);
+                if (!Retry.retriable(e) || !Retry.allowed(attempt)) throw e;
+                Retry.backoff(endpoint, attempt, null, deadline);
+                continue;
+            }
+            int status = res.statusCode();
+            Duration retryAfter = status == 429 || status == 503 ? Retry.retryAfter(res) : null;
+            if (status == 429 || status == 503) { throttle.throttled(retryAfter); Metrics.rejected(endpoint); }
+            else throttle.ok();
+            if (status >= 500 && status != 503) circuit.failure("HTTP " + status);
+            else circuit.success();
+            if (!Retry.retriable(status) || !Retry.allowed(attempt) || System.nanoTime() >= deadline) {
+                Tape.record(endpoint, params, res);
+                return res;
+            }
+            Retry.backoff(endpoint, attempt, retryAfter, deadline);
+        }
+    }
+
+    // One bare attempt: no tape, Throttle, Circuit, per-endpoint cap or Retry, so what comes back (429s and 5xx
+    // included) is the server's own answer. For Load, which measures the server rather than this client's policies.
+    static Response sendOnce(String endpoint, Map<String, Object> params, Timeouts timeouts) {
+        return send(endpoint, params, timeouts, System.nanoTime() + timeouts.total().toNanos());
+    }
+
+    // The caller holds the endpoint's permit (or, from sendOnce, bypasses the cap on purpose)
+    private static Response send(String endpoint, Map<String, Object> params, Timeouts timeouts, long deadline) {
+        try (Pool.Deadline d = Pool.deadline(timeouts.connect(), timeouts.read(), deadline)) {
+            var req = RestAssured.given().config(Pool.config()).baseUri(BASE).contentType("application/json");
+            if (params != null && !params.isEmpty()) req.queryParams(params);
+            Metrics.Timing timing = Metrics.start();
+            try {
+                Response res = req.get(endpoint);
+                // buffer the body now so the pooled connection goes straight back to the pool
+                byte[] body = res.asByteArray();
+                Metrics.record(endpoint, params, timing, body.length);
+                if (Drift.ON && res.statusCode() == 200) Payload.attach(res, Payload.parse(body, Drift.recorder(endpoint, params)));
+                return res;
+            } catch (Exception e) {
+                // An abort while leasing a connection also interrupts this thread; that interrupt was ours
+                if (d.expired()) { Thread.interrupted(); throw new DeadlineExceeded(endpoint, params, timeouts.total(), 1, e); }
+                if (e instanceof RuntimeException re) throw re;
+                // RestAssured rethrows HttpClient's checked IOExceptions (e.g. SocketTimeoutException) undeclared
+                if (e instanceof IOException io) throw new UncheckedIOException(io);
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static String describe(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) root = root.getCause();
+        return root.getClass().getSimpleName() + (root.getMessage() == null ? "" : ": " + root.getMessage());
+    }
+
+    // Stable identity of a request: endpoint plus query params sorted by name
+    public static String key(String endpoint, Map<String, Object> params) {
+        if (params == null || params.isEmpty()) return endpoint;
+        StringJoiner q = new StringJoiner("&", endpoint + "?", "");
+        new TreeMap<>(params).forEach((k, v) -> q.add(k + "=" + v));
+        return q.toString();
+    }
+
+    // Fires every request at once; the per-endpoint cap still bounds what actually hits the wire
+    public static List<CompletableFuture<Response>> sendAll(Collection<Request> requests) {
+        return requests.stream().map(Request::sendAsync).toList();
+    }
+
+    // At most maxInFlight requests outstanding; the next one leaves as soon as any of them completes
+    public static List<CompletableFuture<Response>> sendAll(List<Request> requests, int maxInFlight) {
+        List<CompletableFuture<Response>> out = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) out.add(new CompletableFuture<>());
+        AtomicInteger next = new AtomicInteger();
+        for (int w = 0; w < Math.min(maxInFlight, requests.size()); w++) pump(requests, out, next);
+        return out;
+    }
+
+    private static void pump(List<Request> requests, List<CompletableFuture<Response>> out, AtomicInteger next) {
+        int i = next.getAndIncrement();
+        if (i >= requests.size()) return;
+        requests.get(i).sendAsync().whenComplete((res, err) -> {
+            if (err != null) out.get(i).completeExceptionally(err);
+            else out.get(i).complete(res);
+            pump(requests, out, next);
+        });
+    }
+
+    private static String base(String v) { return "stub".equalsIgnoreCase(v) ? Stub.shared() : v; }
+
+    private static Semaphore limitFor(String endpoint) {
+        return new Semaphore(Integer.getInteger("api.maxConcurrent" + endpoint.replace('/', '.'), MAX_CONCURRENT), true);
+    }
+
+    public record Timeouts(Duration connect, Duration read, Duration total) {
+        public Timeouts connect(Duration v) { return new Timeouts(v, read, total); }
+        public Timeouts read(Duration v) { return new Timeouts(connect, v, total); }
+        public Timeouts total(Duration v) { return new Timeouts(connect, read, v); }
+    }
+
+    // The call as a whole ran past its total deadline; the cause is the last attempt's failure, if any
+    public static class DeadlineExceeded extends UncheckedIOException {
+        public DeadlineExceeded(String endpoint, Map<String, Object> params, Duration total, int attempts, Throwable last) {
+            super(key(endpoint, params) + " exceeded its " + total + " deadline" + (attempts > 0 ? " after " + attempts + " attempt(s)" : ""),
+                    (InterruptedIOException) new InterruptedIOException("deadline exceeded").initCause(last));
+        }
     }
 
     public static class Request {
         private final String endpoint;
         private final Map<String, Object> params = new HashMap<>();
+        private Boolean share;
+        private Timeouts timeouts = TIMEOUTS;
 
         public Request(String endpoint) { this.endpoint = endpoint; }
         public Request locale(String v) { params.put("_locale", v); return this; }
         public Request qty(int v) { params.put("_quantity", v); return this; }
         public Request seed(int v) { params.put("_seed", v); return this; }
         public Request param(String k, Object v) { params.put(k, v); return this; }
-        public Response send() { return Api.get(endpoint, params); }
+        public Object param(String k) { return params.get(k); }
+        // Unseeded responses are random, so sharing them is a per-request decision
+        public Request shared() { return shared(true); }
+        public Request shared(boolean v) { share = v; return this; }
+        public Request connectTimeout(Duration v) { timeouts = timeouts.connect(v); return this; }
+        public Request readTimeout(Duration v) { timeouts = timeouts.read(v); return this; }
+        public Request deadline(Duration v) { timeouts = timeouts.total(v); return this; }
+        public String key() { return Api.key(endpoint, params); }
+        public Response send() { return sharing() ? Api.shared(endpoint, params, timeouts) : Api.get(endpoint, params, timeouts); }
+        Response sendOnce() { return Api.sendOnce(endpoint, params, timeouts); }
+        public CompletableFuture<Response> sendAsync() {
+            var snapshot = new HashMap<>(params);
+            boolean sharing = sharing();
+            Timeouts t = timeouts;
+            return CompletableFuture.supplyAsync(() -> sharing ? Api.shared(endpoint, snapshot, t) : Api.get(endpoint, snapshot, t), Async.executor());
+        }
+
+        private boolean sharing() {
+            return !"off".equalsIgnoreCase(SHARE) && (share != null ? share : params.containsKey("_seed"));
+        }
     }
 }
 
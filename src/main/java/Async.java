@@ -0,0 +1,27 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Async {
+
+    private static final ExecutorService executor = create();
+    private static final boolean virtual = !(executor instanceof ThreadPoolExecutor);
+
+    // Requests spend nearly all their time blocked on I/O, so one cheap thread per request is the right shape
+    public static ExecutorService executor() { return executor; }
+    public static boolean isVirtual() { return virtual; }
+
+    private static ExecutorService create() {
+        if (Boolean.parseBoolean(System.getProperty("api.virtualThreads", "true"))) {
+            try { return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null); }
+            catch (ReflectiveOperationException e) { /* Java 17 build: fall back to platform threads */ }
+        }
+        AtomicInteger n = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "api-async-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
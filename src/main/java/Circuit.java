@@ -0,0 +1,89 @@
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-endpoint circuit breaker. FAILURES consecutive failed attempts (I/O errors, timeouts, 5xx other than 503)
+// open it; while open, calls to the endpoint fail at once with Open instead of each waiting out its own timeouts.
+// After COOLDOWN one call is let through as a probe: success closes the circuit, failure opens it again.
+// Any other answer, 429 and 503 included (flow control, left to Throttle), counts as success.
+public class Circuit {
+
+    public static final int FAILURES = Integer.getInteger("api.breaker.failures", 5);
+    public static final Duration COOLDOWN = Duration.parse(System.getProperty("api.breaker.cooldown", "PT30S"));
+
+    private enum State { CLOSED, OPEN, PROBING }
+
+    private static final Map<String, Circuit> byEndpoint = new ConcurrentHashMap<>();
+
+    private final String endpoint;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutive = new AtomicInteger();
+    private final LongAdder refused = new LongAdder();
+    private volatile long openedAt;
+    private volatile int opened;
+    private volatile String cause;
+
+    private Circuit(String endpoint) { this.endpoint = endpoint; }
+
+    public static Circuit of(String endpoint) { return byEndpoint.computeIfAbsent(endpoint, Circuit::new); }
+
+    // Circuits that have opened at least once
+    public static Map<String, Circuit> tripped() {
+        Map<String, Circuit> out = new TreeMap<>();
+        byEndpoint.forEach((e, c) -> { if (c.opened > 0) out.put(e, c); });
+        return out;
+    }
+
+    // Throws Open unless the call may go out; after the cooldown exactly one caller gets through as the probe
+    public void allow() {
+        State s = state.get();
+        if (s == State.CLOSED) return;
+        if (s == State.OPEN && System.nanoTime() - openedAt >= COOLDOWN.toNanos() && state.compareAndSet(State.OPEN, State.PROBING)) return;
+        refused.increment();
+        throw new Open(reason());
+    }
+
+    public void success() {
+        consecutive.set(0);
+        state.compareAndSet(State.PROBING, State.CLOSED);
+    }
+
+    public void failure(String what) {
+        State now = state.get();
+        // Already open: late failures from calls that went out before it opened don't push the cooldown back
+        if (now == State.OPEN) return;
+        cause = what;
+        // openedAt first, so allow() never sees the new state with an old opening time
+        State from = now == State.PROBING ? State.PROBING : consecutive.incrementAndGet() >= FAILURES ? State.CLOSED : null;
+        if (from == null) return;
+        openedAt = System.nanoTime();
+        if (state.compareAndSet(from, State.OPEN)) opened++;
+    }
+
+    // Calls would be refused right now (open and cooling down, or a probe is out)
+    public boolean open() {
+        State s = state.get();
+        return s == State.PROBING || s == State.OPEN && System.nanoTime() - openedAt < COOLDOWN.toNanos();
+    }
+
+    public long refused() { return refused.sum(); }
+    public int opened() { return opened; }
+
+    public String reason() {
+        return endpoint + " circuit open after " + FAILURES + " consecutive failures (last: " + cause + ")";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s, opened %d time(s), %d calls refused, last failure: %s", endpoint,
+                state.get().name().toLowerCase(), opened, refused.sum(), cause);
+    }
+
+    public static class Open extends IllegalStateException {
+        public Open(String reason) { super(reason); }
+    }
+}
@@ -0,0 +1,90 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+// Test inputs under src/test/resources/data/: each file is parsed once, values come back typed
+public class Data {
+
+    public static final String DIR = System.getProperty("api.data.dir", "src/test/resources/data/");
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<String, JsonNode> files = new ConcurrentHashMap<>();
+
+    public record PriceRange(double min, double max) { }
+
+    // common.json
+    public static List<String> locales() { return strings("common.json", "locales"); }
+    public static int[] validQty() { return ints("common.json", "valid_qty"); }
+    public static int[] invalidQty() { return ints("common.json", "invalid_qty"); }
+    public static int[] seeds() { return ints("common.json", "seeds"); }
+
+    // images.json
+    public static List<String> imageTypes() { return strings("images.json", "valid_types"); }
+    public static int[] validWidths() { return ints("images.json", "valid_widths"); }
+    public static int[] validHeights() { return ints("images.json", "valid_heights"); }
+    public static int[] invalidWidths() { return ints("images.json", "invalid_widths"); }
+    public static int[] invalidHeights() { return ints("images.json", "invalid_heights"); }
+
+    // products.json
+    public static int[] validTaxes() { return ints("products.json", "valid_taxes"); }
+    public static int[] invalidTaxes() { return ints("products.json", "invalid_taxes"); }
+    public static double[] validPriceMin() { return doubles("products.json", "valid_price_min"); }
+    public static double[] validPriceMax() { return doubles("products.json", "valid_price_max"); }
+    public static List<String> categoryTypes() { return strings("products.json", "category_types"); }
+
+    public static List<PriceRange> priceRanges() {
+        JsonNode arr = array("products.json", "price_ranges");
+        PriceRange[] out = new PriceRange[arr.size()];
+        for (int i = 0; i < out.length; i++) out[i] = new PriceRange(arr.get(i).path("min").asDouble(), arr.get(i).path("max").asDouble());
+        return List.of(out);
+    }
+
+    // users.json
+    public static List<String> genders() { return strings("users.json", "genders"); }
+    // Locales whose names are written in Han/Kana rather than Latin letters
+    public static List<String> cjkLocales() { return strings("users.json", "cjk_locales"); }
+
+    // ===== GENERIC ACCESS =====
+
+    public static JsonNode file(String name) {
+        return files.computeIfAbsent(name, n -> {
+            try { return mapper.readTree(Path.of(DIR, n).toFile()); }
+            catch (IOException e) { throw new UncheckedIOException("Cannot load: " + DIR + n, e); }
+        });
+    }
+
+    public static int[] ints(String file, String key) {
+        JsonNode arr = array(file, key);
+        int[] out = new int[arr.size()];
+        for (int i = 0; i < out.length; i++) out[i] = arr.get(i).asInt();
+        return out;
+    }
+
+    public static IntStream intStream(String file, String key) { return IntStream.of(ints(file, key)); }
+
+    public static double[] doubles(String file, String key) {
+        JsonNode arr = array(file, key);
+        double[] out = new double[arr.size()];
+        for (int i = 0; i < out.length; i++) out[i] = arr.get(i).asDouble();
+        return out;
+    }
+
+    public static List<String> strings(String file, String key) {
+        JsonNode arr = array(file, key);
+        String[] out = new String[arr.size()];
+        for (int i = 0; i < out.length; i++) out[i] = arr.get(i).asText();
+        return List.of(out);
+    }
+
+    private static JsonNode array(String file, String key) {
+        JsonNode arr = file(file).path(key);
+        if (!arr.isArray()) throw new IllegalArgumentException("No array '" + key + "' in " + DIR + file);
+        return arr;
+    }
+}
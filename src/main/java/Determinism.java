@@ -0,0 +1,51 @@
+import io.restassured.response.Response;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends every request twice at once and compares SHA-256 digests of the two bodies
+public class Determinism {
+
+    public static final int MAX_IN_FLIGHT = Integer.getInteger("determinism.maxInFlight", 8);
+
+    // Keys of the requests whose paired responses differed (or failed); empty means deterministic
+    public static List<String> diverging(List<Api.Request> requests) { return diverging(requests, MAX_IN_FLIGHT); }
+
+    // At most maxInFlight pairs outstanding; the next pair leaves as soon as both copies of one have been digested
+    public static List<String> diverging(List<Api.Request> requests, int maxInFlight) {
+        List<CompletableFuture<String>> checks = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) checks.add(new CompletableFuture<>());
+        AtomicInteger next = new AtomicInteger();
+        for (int w = 0; w < Math.min(maxInFlight, requests.size()); w++) pump(requests, checks, next);
+        List<String> out = new ArrayList<>();
+        for (CompletableFuture<String> c : checks) {
+            String key = c.join();
+            if (key != null) out.add(key);
+        }
+        return out;
+    }
+
+    private static void pump(List<Api.Request> requests, List<CompletableFuture<String>> checks, AtomicInteger next) {
+        int i = next.getAndIncrement();
+        if (i >= requests.size()) return;
+        Api.Request req = requests.get(i).shared(false); // both copies must go over the wire
+        CompletableFuture<byte[]> first = req.sendAsync().thenApply(Determinism::digest);
+        CompletableFuture<byte[]> second = req.sendAsync().thenApply(Determinism::digest);
+        first.thenCombine(second, (a, b) -> Arrays.equals(a, b) ? null : req.key())
+                .exceptionally(e -> req.key() + " (" + e.getCause() + ")")
+                .thenAccept(key -> { checks.get(i).complete(key); pump(requests, checks, next); });
+    }
+
+    // Api has already buffered the whole body; keeping only its 32-byte digest lets the response be dropped
+    public static byte[] digest(Response res) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(Integer.toString(res.statusCode()).getBytes());
+            return sha.digest(res.asByteArray());
+        } catch (NoSuchAlgorithmException e) { throw new IllegalStateException(e); }
+    }
+}
@@ -0,0 +1,99 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Width/height from the first bytes of a PNG, GIF, WebP or JPEG, without decoding (or downloading) the image
+public class Dimensions {
+
+    // JPEG can carry large EXIF/ICC segments ahead of the frame header; give up after this many bytes
+    public static final int MAX_HEADER = Integer.getInteger("images.maxHeader", 256 * 1024);
+
+    public record Size(int width, int height, String format) {
+        @Override public String toString() { return width + "x" + height + " " + format; }
+    }
+
+    // Reads only as far as the header; the caller closes the stream. Null when the format isn't recognized.
+    public static Size read(InputStream in) throws IOException {
+        Reader r = new Reader(in);
+        int b0 = r.u8(), b1 = r.u8();
+        if (b0 == 0x89 && b1 == 'P') return png(r);
+        if (b0 == 'G' && b1 == 'I') return gif(r);
+        if (b0 == 'R' && b1 == 'I') return webp(r);
+        if (b0 == 0xFF && b1 == 0xD8) return jpeg(r);
+        return null;
+    }
+
+    // 8-byte signature, then the IHDR chunk: length, "IHDR", width, height (big-endian)
+    private static Size png(Reader r) throws IOException {
+        r.skip(14);
+        return new Size(r.u32be(), r.u32be(), "png");
+    }
+
+    // "GIF87a"/"GIF89a", then the logical screen width and height (little-endian)
+    private static Size gif(Reader r) throws IOException {
+        r.skip(4);
+        return new Size(r.u16le(), r.u16le(), "gif");
+    }
+
+    // "RIFF" size "WEBP", then a VP8 (lossy), VP8L (lossless) or VP8X (extended) chunk
+    private static Size webp(Reader r) throws IOException {
+        r.skip(10);
+        int c0 = r.u8(), c1 = r.u8(), c2 = r.u8(), c3 = r.u8();
+        if (c0 != 'V' || c1 != 'P' || c2 != '8') return null;
+        r.skip(4); // chunk size
+        if (c3 == ' ') {
+            r.skip(6); // frame tag + start code 9d 01 2a
+            return new Size(r.u16le() & 0x3FFF, r.u16le() & 0x3FFF, "webp");
+        }
+        if (c3 == 'L') {
+            r.skip(1); // signature 0x2f
+            int b0 = r.u8(), b1 = r.u8(), b2 = r.u8(), b3 = r.u8();
+            return new Size(1 + (b0 | (b1 & 0x3F) << 8), 1 + ((b1 >> 6) | b2 << 2 | (b3 & 0x0F) << 10), "webp");
+        }
+        if (c3 == 'X') {
+            r.skip(4); // flags + reserved
+            return new Size(1 + r.u24le(), 1 + r.u24le(), "webp");
+        }
+        return null;
+    }
+
+    // Walks the marker segments until a start-of-frame: length, precision, height, width (big-endian)
+    private static Size jpeg(Reader r) throws IOException {
+        while (true) {
+            int b = r.u8();
+            if (b != 0xFF) return null;
+            int marker;
+            do { marker = r.u8(); } while (marker == 0xFF);
+            if (marker == 0xD9 || marker == 0xDA) return null; // end of image / start of scan without a frame header
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) continue; // no length
+            int len = r.u16be();
+            boolean sof = marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+            if (sof) {
+                r.skip(1);
+                int h = r.u16be();
+                return new Size(r.u16be(), h, "jpeg");
+            }
+            r.skip(len - 2);
+        }
+    }
+
+    private static final class Reader {
+        private final InputStream in;
+        private int pos;
+
+        Reader(InputStream in) { this.in = in; }
+
+        int u8() throws IOException {
+            if (pos++ >= MAX_HEADER) throw new IOException("No image header in the first " + MAX_HEADER + " bytes");
+            int b = in.read();
+            if (b < 0) throw new EOFException("Image ended before its header");
+            return b;
+        }
+
+        void skip(int n) throws IOException { for (int i = 0; i < n; i++) u8(); }
+        int u16be() throws IOException { return u8() << 8 | u8(); }
+        int u16le() throws IOException { return u8() | u8() << 8; }
+        int u24le() throws IOException { return u8() | u8() << 8 | u8() << 16; }
+        int u32be() throws IOException { return u8() << 24 | u8() << 16 | u8() << 8 | u8(); }
+    }
+}
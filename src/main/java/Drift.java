@@ -0,0 +1,463 @@
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Field-level profile of every endpoint's items (paths, types, null and presence rates, length and numeric
+// sketches), built during Payload's single parse of each body. At the end of the run it is diffed against
+// the previous run's profile (.drift/<endpoint>.drift) and against the schema, then saved for the next run.
+public class Drift {
+
+    public static final boolean ON = !"off".equalsIgnoreCase(System.getProperty("drift", "on"));
+    public static final Path DIR = Path.of(System.getProperty("drift.dir", ".drift"));
+    public static final String SCHEMAS = System.getProperty("drift.schemas", "src/test/resources/schemas/");
+    // Presence/null rate change, mean shift in previous sds, and length-histogram distance that count as drift
+    public static final double TOLERANCE = Double.parseDouble(System.getProperty("drift.tolerance", "0.1"));
+    public static final double Z = Double.parseDouble(System.getProperty("drift.z", "6"));
+
+    static final int MIN_SAMPLES = 100, BUCKETS = 16, MAGIC = 0x44524654, VERSION = 1;
+    static final int STRING = 1, INT = 2, FLOAT = 4, BOOL = 8, OBJECT = 16, ARRAY = 32, NULL = 64;
+    private static final String[] TYPE_NAMES = {"string", "integer", "number", "boolean", "object", "array", "null"};
+    private static final Map<String, String> SCHEMA_FILES = Map.of(Api.PRODUCTS, "product-schema.json",
+            Api.USERS, "user-schema.json", Api.COMPANIES, "company-schema.json", Api.IMAGES, "image-schema.json");
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+    private static final Map<String, Queue<Recorder>> idle = new ConcurrentHashMap<>();
+
+    // Recorder for one response body; null when profiling is off. Hand it to Payload.parse.
+    public static Recorder recorder(String endpoint, Map<String, Object> params) {
+        if (!ON) return null;
+        Recorder r = idle.computeIfAbsent(endpoint, k -> new ConcurrentLinkedQueue<>()).poll();
+        if (r == null) r = new Recorder(endpoint);
+        // Value sketches only from unparameterized requests, so a run's mix of filters doesn't read as drift
+        r.baseline = params == null || Set.of("_quantity", "_seed").containsAll(params.keySet());
+        return r;
+    }
+
+    public static Map<String, Profile> profiles() { return new TreeMap<>(profiles); }
+
+    // ===== PROFILE =====
+
+    static final class Field {
+        final String path;
+        long count, nulls;
+        int types;
+        // Baseline requests only: string lengths (log2 buckets + Welford) and numeric values (Welford)
+        final long[] lengths = new long[BUCKETS];
+        long lenN, numN;
+        double lenMean, lenM2, numMean, numM2, numMin = Double.POSITIVE_INFINITY, numMax = Double.NEGATIVE_INFINITY;
+
+        Field(String path) { this.path = path; }
+
+        void length(int len) {
+            lengths[Math.min(BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(len))]++;
+            lenN++;
+            double d = len - lenMean;
+            lenMean += d / lenN;
+            lenM2 += d * (len - lenMean);
+        }
+
+        void number(double v) {
+            numN++;
+            if (v < numMin) numMin = v;
+            if (v > numMax) numMax = v;
+            double d = v - numMean;
+            numMean += d / numN;
+            numM2 += d * (v - numMean);
+        }
+
+        // Chan et al. pairwise combination of the running moments
+        void merge(Field o) {
+            count += o.count;
+            nulls += o.nulls;
+            types |= o.types;
+            for (int i = 0; i < BUCKETS; i++) lengths[i] += o.lengths[i];
+            if (o.lenN > 0) {
+                long n = lenN + o.lenN;
+                double d = o.lenMean - lenMean;
+                lenM2 += o.lenM2 + d * d * lenN * o.lenN / n;
+                lenMean += d * o.lenN / n;
+                lenN = n;
+            }
+            if (o.numN > 0) {
+                long n = numN + o.numN;
+                double d = o.numMean - numMean;
+                numM2 += o.numM2 + d * d * numN * o.numN / n;
+                numMean += d * o.numN / n;
+                numN = n;
+                numMin = Math.min(numMin, o.numMin);
+                numMax = Math.max(numMax, o.numMax);
+            }
+        }
+
+        void reset() {
+            count = nulls = lenN = numN = 0;
+            types = 0;
+            Arrays.fill(lengths, 0);
+            lenMean = lenM2 = numMean = numM2 = 0;
+            numMin = Double.POSITIVE_INFINITY;
+            numMax = Double.NEGATIVE_INFINITY;
+        }
+
+        double lenSd() { return lenN < 2 ? 0 : Math.sqrt(lenM2 / (lenN - 1)); }
+        double numSd() { return numN < 2 ? 0 : Math.sqrt(numM2 / (numN - 1)); }
+    }
+
+    // One endpoint's merged fields, keyed by path: "" is the item, "contact.address.city", "addresses[].city"
+    public static final class Profile {
+        final String endpoint;
+        final Map<String, Field> fields = new TreeMap<>();
+
+        Profile(String endpoint) { this.endpoint = endpoint; }
+
+        public long items() { Field root = fields.get(""); return root == null ? 0 : root.count; }
+        public int size() { return fields.size() - 1; }
+
+        synchronized void merge(Node node) {
+            if (node.field.count > 0) fields.computeIfAbsent(node.field.path, Field::new).merge(node.field);
+            for (Node child : node.children.values()) merge(child);
+            if (node.element != null) merge(node.element);
+        }
+    }
+
+    // ===== RECORDING =====
+
+    // Tree of the paths seen so far, reused across responses (pooled per endpoint) so a parse allocates nothing
+    // once the shape is known; field names come from Jackson's symbol table
+    private static final class Node {
+        final Field field;
+        final Map<String, Node> children = new HashMap<>();
+        Node element;
+
+        Node(String path) { field = new Field(path); }
+
+        Node child(String name) { return children.computeIfAbsent(name, n -> new Node(field.path.isEmpty() ? n : field.path + "." + n)); }
+        Node element() { return element != null ? element : (element = new Node(field.path + "[]")); }
+
+        void reset() {
+            field.reset();
+            for (Node c : children.values()) c.reset();
+            if (element != null) element.reset();
+        }
+    }
+
+    public static final class Recorder {
+        private final String endpoint;
+        private final Node root = new Node("");
+        boolean baseline;
+
+        Recorder(String endpoint) { this.endpoint = endpoint; }
+
+        // The parser is on an element of "data"; consumes it
+        public void item(JsonParser p) throws IOException { value(p, root); }
+
+        private void value(JsonParser p, Node node) throws IOException {
+            Field f = node.field;
+            f.count++;
+            switch (p.currentToken()) {
+                case START_OBJECT -> {
+                    f.types |= OBJECT;
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        Node child = node.child(p.currentName());
+                        p.nextToken();
+                        value(p, child);
+                    }
+                }
+                case START_ARRAY -> {
+                    f.types |= ARRAY;
+                    Node el = node.element();
+                    while (p.nextToken() != JsonToken.END_ARRAY) value(p, el);
+                }
+                case VALUE_STRING -> { f.types |= STRING; if (baseline) f.length(p.getTextLength()); }
+                case VALUE_NUMBER_INT -> { f.types |= INT; if (baseline) f.number(p.getDoubleValue()); }
+                case VALUE_NUMBER_FLOAT -> { f.types |= FLOAT; if (baseline) f.number(p.getDoubleValue()); }
+                case VALUE_TRUE, VALUE_FALSE -> f.types |= BOOL;
+                case VALUE_NULL -> { f.types |= NULL; f.nulls++; }
+                default -> p.skipChildren();
+            }
+        }
+
+        // The body parsed cleanly: fold it into the endpoint's profile
+        public void commit() {
+            profiles.computeIfAbsent(endpoint, Profile::new).merge(root);
+            discard();
+        }
+
+        public void discard() {
+            root.reset();
+            idle.get(endpoint).offer(this);
+        }
+    }
+
+    // ===== DIFF =====
+
+    // Changes from the previous run's profile; both must have seen enough of a path for it to count
+    static List<String> diff(Profile prev, Profile cur) {
+        List<String> out = new ArrayList<>();
+        for (Field c : cur.fields.values()) {
+            if (c.path.isEmpty()) continue;
+            Field p = prev.fields.get(c.path);
+            long parentNow = parentCount(cur, c.path), parentBefore = parentCount(prev, c.path);
+            if (p == null) {
+                if (parentBefore >= MIN_SAMPLES) out.add(String.format("new field '%s' (in %.1f%% of %s)", c.path, 100.0 * c.count / parentNow, of(parent(c.path))));
+                continue;
+            }
+            int added = fold(c.types) & ~fold(p.types) & ~NULL;
+            if (added != 0) out.add(String.format("'%s' is now also %s (was %s)", c.path, types(added), types(p.types)));
+            if (p.nulls == 0 && c.nulls > 0)
+                out.add(String.format("'%s' has nulls now (%.1f%% of %d)", c.path, 100.0 * c.nulls / c.count, c.count));
+            else if (p.count >= MIN_SAMPLES && c.count >= MIN_SAMPLES && Math.abs(rate(c.nulls, c.count) - rate(p.nulls, p.count)) > TOLERANCE)
+                out.add(String.format("'%s' null rate %.1f%% -> %.1f%%", c.path, 100 * rate(p.nulls, p.count), 100 * rate(c.nulls, c.count)));
+            if (!c.path.endsWith("[]") && parentNow >= MIN_SAMPLES && parentBefore >= MIN_SAMPLES) {
+                double before = rate(p.count, parentBefore), now = rate(c.count, parentNow);
+                if (Math.abs(now - before) > TOLERANCE)
+                    out.add(String.format("'%s' present in %.1f%% of %s, was %.1f%%", c.path, 100 * now, of(parent(c.path)), 100 * before));
+            }
+            if (positional(c.path)) continue;
+            shift(out, c.path, "length", p.lenN, p.lenMean, p.lenSd(), c.lenN, c.lenMean, c.lenSd());
+            shift(out, c.path, "value", p.numN, p.numMean, p.numSd(), c.numN, c.numMean, c.numSd());
+            if (p.lenN >= 10L * MIN_SAMPLES && c.lenN >= 10L * MIN_SAMPLES) {
+                double tvd = 0;
+                for (int i = 0; i < BUCKETS; i++) tvd += Math.abs((double) c.lengths[i] / c.lenN - (double) p.lengths[i] / p.lenN);
+                if (tvd / 2 > TOLERANCE) out.add(String.format("'%s' length distribution moved (distance %.2f)", c.path, tvd / 2));
+            }
+        }
+        for (Field p : prev.fields.values()) {
+            if (p.path.isEmpty() || cur.fields.containsKey(p.path)) continue;
+            if (parentCount(cur, p.path) >= MIN_SAMPLES)
+                out.add(String.format("field '%s' is gone (was in %.1f%% of %s)", p.path, 100.0 * p.count / Math.max(1, parentCount(prev, p.path)), of(parent(p.path))));
+        }
+        return out;
+    }
+
+    // Mean moved by more than TOLERANCE previous sds and more than Z standard errors
+    private static void shift(List<String> out, String path, String what, long n0, double m0, double s0, long n1, double m1, double s1) {
+        if (n0 < MIN_SAMPLES || n1 < MIN_SAMPLES) return;
+        double se = Math.sqrt(s0 * s0 / n0 + s1 * s1 / n1);
+        if (Math.abs(m1 - m0) > Z * se && Math.abs(m1 - m0) > TOLERANCE * Math.max(s0, 1e-9))
+            out.add(String.format("'%s' mean %s %.2f -> %.2f (sd %.2f)", path, what, m0, m1, s0));
+    }
+
+    // Paths the schema knows vs what the items actually look like
+    static List<String> diff(JsonNode schema, Profile cur) {
+        List<String> out = new ArrayList<>();
+        JsonNode item = schema.path("properties").path("data").path("items");
+        if (item.isMissingNode()) return out;
+        Map<String, JsonNode> declared = new TreeMap<>();
+        Map<String, Boolean> open = new HashMap<>();
+        declare(item, "", declared, open);
+        for (Field c : cur.fields.values()) {
+            if (c.path.isEmpty()) continue;
+            JsonNode s = declared.get(c.path);
+            if (s == null) {
+                if (!Boolean.TRUE.equals(open.get(parent(c.path)))) out.add("'" + c.path + "' is not in the schema");
+                continue;
+            }
+            int allowed = allowed(s.path("type"));
+            if (allowed == 0) continue;
+            int extra = c.types & ~allowed;
+            if (extra != 0) out.add(String.format("'%s' is %s, schema says %s", c.path, types(extra), types(allowed)));
+        }
+        declared.forEach((path, s) -> {
+            Field c = cur.fields.get(path);
+            long parents = parentCount(cur, path);
+            if (parents == 0 || !required(path, declared, item)) return;
+            if (c == null) out.add("'" + path + "' is required by the schema but never seen");
+            else if (c.count < parents)
+                out.add(String.format("'%s' is required by the schema but missing from %d of %d %s", path, parents - c.count, parents, of(parent(path))));
+        });
+        return out;
+    }
+
+    // Collects declared paths; a path whose schema lists no properties is open, so anything below it is allowed
+    private static void declare(JsonNode schema, String path, Map<String, JsonNode> out, Map<String, Boolean> open) {
+        JsonNode props = schema.get("properties");
+        open.put(path, props == null && !schema.has("items"));
+        if (props != null) props.fields().forEachRemaining(e -> {
+            String p = path.isEmpty() ? e.getKey() : path + "." + e.getKey();
+            out.put(p, e.getValue());
+            declare(e.getValue(), p, out, open);
+        });
+        JsonNode items = schema.get("items");
+        if (items != null && items.isObject()) {
+            out.put(path + "[]", items);
+            declare(items, path + "[]", out, open);
+        }
+    }
+
+    private static boolean required(String path, Map<String, JsonNode> declared, JsonNode item) {
+        if (path.endsWith("[]")) return false;
+        String parent = parent(path);
+        JsonNode owner = parent.isEmpty() ? item : declared.get(parent);
+        String name = path.substring(parent.isEmpty() ? 0 : parent.length() + 1);
+        if (owner == null) return false;
+        for (JsonNode r : owner.path("required")) if (r.asText().equals(name)) return true;
+        return false;
+    }
+
+    private static int allowed(JsonNode type) {
+        int mask = 0;
+        if (type.isArray()) for (JsonNode t : type) mask |= typeBit(t.asText());
+        else if (type.isTextual()) mask = typeBit(type.asText());
+        return mask;
+    }
+
+    private static int typeBit(String t) {
+        return switch (t) {
+            case "string" -> STRING;
+            case "integer" -> INT;
+            case "number" -> FLOAT | INT;
+            case "boolean" -> BOOL;
+            case "object" -> OBJECT;
+            case "array" -> ARRAY;
+            case "null" -> NULL;
+            default -> 0;
+        };
+    }
+
+    // 3 and 3.0 are the same JSON number; only a switch to/from non-numbers is drift
+    private static int fold(int types) { return (types & FLOAT) != 0 ? types | INT : (types & INT) != 0 ? types | FLOAT : types; }
+
+    // "id" fields count 1..qty within each response, so their values say nothing about the generator
+    private static boolean positional(String path) { return path.equals("id") || path.endsWith(".id"); }
+
+    static String parent(String path) {
+        if (path.endsWith("[]")) return path.substring(0, path.length() - 2);
+        int dot = path.lastIndexOf('.');
+        return dot < 0 ? "" : path.substring(0, dot);
+    }
+
+    private static String of(String parent) { return parent.isEmpty() ? "items" : "'" + parent + "'"; }
+
+    private static long parentCount(Profile p, String path) {
+        Field f = p.fields.get(parent(path));
+        return f == null ? 0 : f.count;
+    }
+
+    private static double rate(long n, long of) { return of == 0 ? 0 : (double) n / of; }
+
+    private static String types(int mask) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < TYPE_NAMES.length; i++)
+            if ((mask & (1 << i)) != 0) sb.append(sb.length() == 0 ? "" : "|").append(TYPE_NAMES[i]);
+        return sb.toString();
+    }
+
+    // ===== PERSISTENCE =====
+
+    static void write(Path file, Profile profile) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeUTF(profile.endpoint);
+            out.writeInt(profile.fields.size());
+            for (Field f : profile.fields.values()) {
+                out.writeUTF(f.path);
+                out.writeLong(f.count);
+                out.writeLong(f.nulls);
+                out.writeByte(f.types);
+                out.writeLong(f.lenN);
+                if (f.lenN > 0) {
+                    out.writeDouble(f.lenMean);
+                    out.writeDouble(f.lenM2);
+                    int mask = 0;
+                    for (int i = 0; i < BUCKETS; i++) if (f.lengths[i] > 0) mask |= 1 << i;
+                    out.writeShort(mask);
+                    for (int i = 0; i < BUCKETS; i++) if (f.lengths[i] > 0) out.writeLong(f.lengths[i]);
+                }
+                out.writeLong(f.numN);
+                if (f.numN > 0) {
+                    out.writeDouble(f.numMean);
+                    out.writeDouble(f.numM2);
+                    out.writeDouble(f.numMin);
+                    out.writeDouble(f.numMax);
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // null when there is no previous profile, or it was written by another version
+    static Profile read(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) return null;
+            Profile profile = new Profile(in.readUTF());
+            for (int n = in.readInt(); n > 0; n--) {
+                Field f = new Field(in.readUTF());
+                f.count = in.readLong();
+                f.nulls = in.readLong();
+                f.types = in.readByte();
+                f.lenN = in.readLong();
+                if (f.lenN > 0) {
+                    f.lenMean = in.readDouble();
+                    f.lenM2 = in.readDouble();
+                    int mask = in.readShort() & 0xFFFF;
+                    for (int i = 0; i < BUCKETS; i++) if ((mask & (1 << i)) != 0) f.lengths[i] = in.readLong();
+                }
+                f.numN = in.readLong();
+                if (f.numN > 0) {
+                    f.numMean = in.readDouble();
+                    f.numM2 = in.readDouble();
+                    f.numMin = in.readDouble();
+                    f.numMax = in.readDouble();
+                }
+                profile.fields.put(f.path, f);
+            }
+            return profile;
+        }
+    }
+
+    static Path file(String endpoint) { return DIR.resolve(endpoint.replace("/", "") + ".drift"); }
+
+    // ===== REPORT =====
+
+    // One summary line per endpoint plus each finding; the same lines go to <dir>/drift-report.txt.
+    // The profiles then replace the previous run's.
+    public static List<String> report(Path dir) {
+        List<String> lines = new ArrayList<>();
+        profiles().forEach((endpoint, cur) -> {
+            if (cur.items() == 0) return;
+            try {
+                Profile prev = read(file(endpoint));
+                List<String> vsPrev = prev == null ? List.of() : diff(prev, cur);
+                String schemaFile = SCHEMA_FILES.get(endpoint);
+                List<String> vsSchema = schemaFile == null || !Files.exists(Path.of(SCHEMAS, schemaFile)) ? List.of()
+                        : diff(mapper.readTree(Path.of(SCHEMAS, schemaFile).toFile()), cur);
+                lines.add(String.format("[drift] %-10s %d items, %d fields: %s, %s", endpoint, cur.items(), cur.size(),
+                        prev == null ? "no previous profile" : vsPrev.size() + " changes since the last run",
+                        vsSchema.size() + " differences from the schema"));
+                vsPrev.forEach(l -> lines.add("[drift]   " + l));
+                vsSchema.forEach(l -> lines.add("[drift]   schema: " + l));
+                write(file(endpoint), cur);
+            } catch (IOException e) { throw new UncheckedIOException("Cannot update drift profile for " + endpoint, e); }
+        });
+        try {
+            Files.createDirectories(dir);
+            Files.write(dir.resolve("drift-report.txt"), lines);
+        } catch (IOException e) { throw new UncheckedIOException("Cannot write drift report to " + dir, e); }
+        return lines;
+    }
+}
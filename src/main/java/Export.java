@@ -0,0 +1,312 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+// Exports more items than one call can return: chunk i is _quantity=chunk&_seed=seed+i, so the same job
+// always produces the same file. Chunks are fetched maxInFlight at a time but written in order, one item
+// at a time, with a checkpoint after each so an interrupted export picks up where it stopped.
+public class Export {
+
+    public static final int MAX_IN_FLIGHT = Integer.getInteger("export.maxInFlight", 4);
+
+    public enum Format { NDJSON, CSV }
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public record Result(Path file, long records, long duplicates, long requests, long resumedAt, double seconds) {
+        @Override public String toString() {
+            return String.format("%s: %d records (%d duplicates dropped) from %d requests in %.1fs%s", file, records,
+                    duplicates, requests, seconds, resumedAt > 0 ? ", resumed at record " + resumedAt : "");
+        }
+    }
+
+    public static class Job {
+        private final String endpoint;
+        private final Map<String, Object> params = new LinkedHashMap<>();
+        private long total;
+        private int chunk = Api.MAX_QTY, seed = 1, maxInFlight = MAX_IN_FLIGHT;
+        private String key = "uuid";
+        private Format format;
+        private Path file;
+        private boolean resume = true;
+
+        public Job(String endpoint) { this.endpoint = endpoint; }
+        public Job total(long v) { total = v; return this; }
+        public Job locale(String v) { return param("_locale", v); }
+        public Job param(String k, Object v) { params.put(k, v); return this; }
+        // Seed of the first chunk; chunk i uses seed + i
+        public Job seed(int v) { seed = v; return this; }
+        public Job chunk(int v) { chunk = v; return this; }
+        public Job maxInFlight(int v) { maxInFlight = v; return this; }
+        // Field that identifies an item; items without it are identified by their content (minus "id")
+        public Job key(String v) { key = v; return this; }
+        public Job format(Format v) { format = v; return this; }
+        // Format defaults to the extension: .csv, anything else NDJSON
+        public Job to(Path v) { file = v; return this; }
+        // false: ignore any checkpoint and start over
+        public Job resume(boolean v) { resume = v; return this; }
+        public Result run() { return Export.run(this); }
+
+        Api.Request request(long index) {
+            Api.Request req = new Api.Request(endpoint).qty(chunk).seed(Math.toIntExact(seed + index)).shared(false);
+            params.forEach(req::param);
+            return req;
+        }
+
+        // What a checkpoint must match to be resumed; total isn't part of it, so a finished export can be extended
+        String signature() {
+            Map<String, Object> all = new LinkedHashMap<>(params);
+            all.put("_quantity", chunk);
+            return Api.key(endpoint, all) + " seed=" + seed + " format=" + format + " key=" + key;
+        }
+    }
+
+    // Where the last completed chunk left off; saved next to the output as <file>.ckpt
+    private static final class Checkpoint {
+        long chunk, offset, records, duplicates, bytes;
+        List<String> columns;
+    }
+
+    static Result run(Job job) {
+        if (job.file == null) throw new IllegalArgumentException("No output file for " + job.endpoint);
+        if (job.chunk < 1 || job.chunk > Api.MAX_QTY) throw new IllegalArgumentException("Chunk must be 1.." + Api.MAX_QTY + ": " + job.chunk);
+        if (job.format == null) job.format = job.file.toString().toLowerCase().endsWith(".csv") ? Format.CSV : Format.NDJSON;
+        long start = System.nanoTime();
+        Path ckptFile = sibling(job.file, ".ckpt"), seenFile = sibling(job.file, ".seen");
+        Checkpoint ck = job.resume ? load(ckptFile, job.signature()) : null;
+        if (ck == null) ck = new Checkpoint();
+        long resumedAt = ck.records, requests = 0;
+
+        try {
+            if (job.file.toAbsolutePath().getParent() != null) Files.createDirectories(job.file.toAbsolutePath().getParent());
+            if (ck.records > 0 && (!Files.exists(job.file) || Files.size(job.file) < ck.bytes))
+                throw new IllegalStateException(job.file + " is shorter than its checkpoint; delete " + ckptFile + " or use resume(false)");
+            truncate(job.file, ck.bytes);
+            truncate(seenFile, ck.records * Long.BYTES);
+            LongSet seen = LongSet.load(seenFile, ck.records);
+            try (Sink out = new Sink(Files.newOutputStream(job.file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), ck.bytes);
+                 DataOutputStream seenOut = new DataOutputStream(new BufferedOutputStream(
+                         Files.newOutputStream(seenFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                // Only maxInFlight responses are ever held: the next chunk is requested when the oldest is written
+                Deque<CompletableFuture<Response>> window = new ArrayDeque<>();
+                long next = ck.chunk;
+                while (ck.records < job.total) {
+                    long needed = (job.total - ck.records + job.chunk - 1) / job.chunk;
+                    while (window.size() < job.maxInFlight && window.size() < needed) window.add(job.request(next++).sendAsync());
+                    Response res = window.poll().join();
+                    requests++;
+                    if (res.statusCode() != 200)
+                        throw new IllegalStateException("Chunk " + ck.chunk + " of " + job.endpoint + ": HTTP " + res.statusCode());
+                    Checkpoint c = ck;
+                    long[] pos = {0}, used = {c.offset};
+                    int n = Items.each(res, item -> {
+                        if (pos[0]++ < c.offset || c.records == job.total) return;
+                        used[0] = pos[0];
+                        long id = identity(item, job.key);
+                        if (!seen.add(id)) { c.duplicates++; return; }
+                        try {
+                            seenOut.writeLong(id);
+                            ((ObjectNode) item).put("id", c.records + 1);
+                            if (job.format == Format.CSV) c.columns = csv(out, item, c.columns);
+                            else { out.write(mapper.writeValueAsBytes(item)); out.write('\n'); }
+                        } catch (IOException e) { throw new UncheckedIOException(e); }
+                        c.records++;
+                    });
+                    if (n == 0) throw new IllegalStateException("Chunk " + ck.chunk + " of " + job.endpoint + " came back empty");
+                    // A chunk cut short by total is finished from the same offset when the export is extended
+                    if (used[0] >= n) { ck.chunk++; ck.offset = 0; }
+                    else ck.offset = used[0];
+                    out.flush();
+                    seenOut.flush();
+                    ck.bytes = out.bytes;
+                    save(ckptFile, job.signature(), ck);
+                }
+            }
+        } catch (IOException e) { throw new UncheckedIOException("Cannot export to " + job.file, e); }
+        return new Result(job.file, ck.records, ck.duplicates, requests, resumedAt, (System.nanoTime() - start) / 1e9);
+    }
+
+    // 64-bit FNV-1a of the key field, or of the item without its per-response "id"
+    static long identity(JsonNode item, String key) {
+        byte[] bytes;
+        JsonNode k = item.get(key);
+        if (k != null && k.isValueNode()) bytes = k.asText().getBytes(StandardCharsets.UTF_8);
+        else {
+            ObjectNode copy = ((ObjectNode) item).deepCopy();
+            copy.remove("id");
+            try { bytes = mapper.writeValueAsBytes(copy); }
+            catch (IOException e) { throw new UncheckedIOException(e); }
+        }
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) { h ^= b & 0xFF; h *= 0x100000001b3L; }
+        return h;
+    }
+
+    // Nested objects become dotted columns, arrays stay JSON; the first item fixes the header
+    private static List<String> csv(Sink out, JsonNode item, List<String> columns) throws IOException {
+        Map<String, String> row = new LinkedHashMap<>();
+        flatten("", item, row);
+        if (columns == null) {
+            columns = new ArrayList<>(row.keySet());
+            line(out, columns);
+        }
+        List<String> values = new ArrayList<>(columns.size());
+        for (String c : columns) values.add(row.getOrDefault(c, ""));
+        line(out, values);
+        return columns;
+    }
+
+    private static void flatten(String prefix, JsonNode node, Map<String, String> row) {
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> f = it.next();
+            JsonNode v = f.getValue();
+            if (v.isObject()) flatten(prefix + f.getKey() + ".", v, row);
+            else row.put(prefix + f.getKey(), v.isNull() ? "" : v.isValueNode() ? v.asText() : v.toString());
+        }
+    }
+
+    private static void line(Sink out, List<String> values) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String v : values) {
+            if (sb.length() > 0) sb.append(',');
+            boolean quote = v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0;
+            sb.append(quote ? '"' + v.replace("\"", "\"\"") + '"' : v);
+        }
+        out.text(sb.append('\n').toString());
+    }
+
+    // ===== CHECKPOINT =====
+
+    private static Checkpoint load(Path file, String signature) {
+        if (!Files.exists(file)) return null;
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(file)) { p.load(in); }
+        catch (IOException e) { throw new UncheckedIOException("Cannot read checkpoint " + file, e); }
+        if (!signature.equals(p.getProperty("signature")))
+            throw new IllegalStateException("Checkpoint " + file + " belongs to a different export (" + p.getProperty("signature")
+                    + "); delete it or use resume(false)");
+        Checkpoint ck = new Checkpoint();
+        ck.chunk = Long.parseLong(p.getProperty("chunk"));
+        ck.offset = Long.parseLong(p.getProperty("offset"));
+        ck.records = Long.parseLong(p.getProperty("records"));
+        ck.duplicates = Long.parseLong(p.getProperty("duplicates"));
+        ck.bytes = Long.parseLong(p.getProperty("bytes"));
+        String columns = p.getProperty("columns");
+        try { if (columns != null) ck.columns = List.of(mapper.readValue(columns, String[].class)); }
+        catch (IOException e) { throw new UncheckedIOException("Cannot read checkpoint " + file, e); }
+        return ck;
+    }
+
+    // Written to a temp file and moved into place, so a crash leaves either the old or the new checkpoint
+    private static void save(Path file, String signature, Checkpoint ck) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("signature", signature);
+        p.setProperty("chunk", Long.toString(ck.chunk));
+        p.setProperty("offset", Long.toString(ck.offset));
+        p.setProperty("records", Long.toString(ck.records));
+        p.setProperty("duplicates", Long.toString(ck.duplicates));
+        p.setProperty("bytes", Long.toString(ck.bytes));
+        if (ck.columns != null) p.setProperty("columns", mapper.writeValueAsString(ck.columns));
+        Path tmp = sibling(file, ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) { p.store(out, "Export checkpoint"); }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Drops whatever was written after the last checkpoint
+    private static void truncate(Path file, long size) throws IOException {
+        if (!Files.exists(file)) return;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (ch.size() > size) ch.truncate(size);
+        }
+    }
+
+    private static Path sibling(Path file, String suffix) { return file.resolveSibling(file.getFileName() + suffix); }
+
+    // Output stream that knows how many bytes it has written, for the checkpoint
+    private static final class Sink extends OutputStream {
+        private final OutputStream out;
+        long bytes;
+
+        Sink(OutputStream out, long bytes) {
+            this.out = new BufferedOutputStream(out, 1 << 16);
+            this.bytes = bytes;
+        }
+
+        void text(String s) throws IOException { write(s.getBytes(StandardCharsets.UTF_8)); }
+
+        @Override public void write(int b) throws IOException { out.write(b); bytes++; }
+        @Override public void write(byte[] b, int off, int len) throws IOException { out.write(b, off, len); bytes += len; }
+        @Override public void flush() throws IOException { out.flush(); }
+        @Override public void close() throws IOException { out.close(); }
+    }
+
+    // Open-addressing set of 64-bit hashes: 8 bytes a record instead of a String per record
+    private static final class LongSet {
+        private long[] slots = new long[1 << 16];
+        private int size;
+        private boolean zero;
+
+        static LongSet load(Path file, long count) throws IOException {
+            LongSet set = new LongSet();
+            if (count == 0 || !Files.exists(file)) return set;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                for (long i = 0; i < count; i++) set.add(in.readLong());
+            }
+            return set;
+        }
+
+        boolean add(long h) {
+            if (h == 0) { boolean added = !zero; zero = true; return added; }
+            if (size * 2 >= slots.length) grow();
+            int mask = slots.length - 1;
+            for (int i = (int) (h ^ h >>> 32) & mask; ; i = (i + 1) & mask) {
+                if (slots[i] == h) return false;
+                if (slots[i] == 0) { slots[i] = h; size++; return true; }
+            }
+        }
+
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            size = 0;
+            for (long h : old) if (h != 0) add(h);
+        }
+    }
+
+    // java Export /users 1000000 users.ndjson [seed] — extension picks the format; -Dexport.locale=... adds _locale
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("usage: Export <endpoint> <total> <file.ndjson|file.csv> [seed]");
+            System.exit(2);
+        }
+        Job job = new Job(args[0]).total(Long.parseLong(args[1])).to(Path.of(args[2]));
+        if (args.length > 3) job.seed(Integer.parseInt(args[3]));
+        String locale = System.getProperty("export.locale");
+        if (locale != null) job.locale(locale);
+        System.out.println("[export] " + job.run());
+    }
+}
@@ -0,0 +1,189 @@
+// Field-format checks as hand-written scanners: no regex, no allocation, any CharSequence (String, or a
+// View over a parser's char buffer when streaming)
+public final class Formats {
+
+    public enum Kind {
+        UUID, IPV4, MAC, EMAIL, PHONE, URL, EAN13, UPCA;
+
+        public boolean test(CharSequence s) {
+            return switch (this) {
+                case UUID -> uuid(s);
+                case IPV4 -> ipv4(s);
+                case MAC -> mac(s);
+                case EMAIL -> email(s);
+                case PHONE -> phone(s);
+                case URL -> url(s);
+                case EAN13 -> ean13(s);
+                case UPCA -> upcA(s);
+            };
+        }
+    }
+
+    private Formats() { }
+
+    // 8-4-4-4-12 hex digits, either case
+    public static boolean uuid(CharSequence s) {
+        if (s == null || s.length() != 36 || s.charAt(8) != '-' || s.charAt(13) != '-' || s.charAt(18) != '-' || s.charAt(23) != '-')
+            return false;
+        return hexRun(s, 0, 8) && hexRun(s, 9, 13) && hexRun(s, 14, 18) && hexRun(s, 19, 23) && hexRun(s, 24, 36);
+    }
+
+    // Four dot-separated decimals 0..255, no leading zeros
+    public static boolean ipv4(CharSequence s) {
+        if (s == null) return false;
+        int n = s.length(), i = 0;
+        for (int part = 0; part < 4; part++) {
+            if (part > 0) { if (i >= n || s.charAt(i) != '.') return false; i++; }
+            int start = i, v = 0;
+            while (i < n && digit(s.charAt(i)) && i - start < 3) v = v * 10 + (s.charAt(i++) - '0');
+            int len = i - start;
+            if (len == 0 || v > 255 || (len > 1 && s.charAt(start) == '0')) return false;
+        }
+        return i == n;
+    }
+
+    // Six hex pairs separated by ':' or '-' (the same one throughout)
+    public static boolean mac(CharSequence s) {
+        if (s == null || s.length() != 17) return false;
+        char sep = s.charAt(2);
+        if (sep != ':' && sep != '-') return false;
+        for (int i = 0; i < 17; i++) {
+            char c = s.charAt(i);
+            if (i % 3 == 2) { if (c != sep) return false; }
+            else if (!hex(c)) return false;
+        }
+        return true;
+    }
+
+    // Pragmatic address: dot-atom local part, '@', a hostname with at least two labels and a letters-only TLD
+    public static boolean email(CharSequence s) {
+        if (s == null) return false;
+        int n = s.length(), at = -1;
+        for (int i = 0; i < n; i++) if (s.charAt(i) == '@') { if (at >= 0) return false; at = i; }
+        if (at < 1 || at > 64) return false;
+        char prev = '.';
+        for (int i = 0; i < at; i++) {
+            char c = s.charAt(i);
+            if (c == '.') { if (prev == '.') return false; }
+            else if (!atext(c)) return false;
+            prev = c;
+        }
+        return prev != '.' && host(s, at + 1, n, true);
+    }
+
+    // '+', then 7..15 digits; single spaces, dashes, dots or parentheses may separate groups
+    public static boolean phone(CharSequence s) {
+        if (s == null || s.length() < 2 || s.charAt(0) != '+' || !digit(s.charAt(1))) return false;
+        int digits = 0;
+        boolean sep = false;
+        for (int i = 1, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (digit(c)) { digits++; sep = false; }
+            else if (c == ' ' || c == '-' || c == '.' || c == '(' || c == ')') { if (sep && c != '(') return false; sep = c != ')'; }
+            else return false;
+        }
+        return !sep && digits >= 7 && digits <= 15;
+    }
+
+    // http(s)://host[:port][/path][?query][#fragment]; the part after the authority must be printable ASCII
+    public static boolean url(CharSequence s) {
+        if (s == null) return false;
+        int n = s.length(), i;
+        if (startsWith(s, "https://")) i = 8;
+        else if (startsWith(s, "http://")) i = 7;
+        else return false;
+        int end = i;
+        while (end < n && s.charAt(end) != '/' && s.charAt(end) != '?' && s.charAt(end) != '#') end++;
+        int colon = end;
+        for (int j = i; j < end; j++) if (s.charAt(j) == ':') { colon = j; break; }
+        if (!host(s, i, colon, false)) return false;
+        if (colon < end) {
+            if (end - colon < 2 || end - colon > 6) return false;
+            int port = 0;
+            for (int j = colon + 1; j < end; j++) {
+                if (!digit(s.charAt(j))) return false;
+                port = port * 10 + (s.charAt(j) - '0');
+            }
+            if (port < 1 || port > 65535) return false;
+        }
+        for (int j = end; j < n; j++) {
+            char c = s.charAt(j);
+            if (c <= ' ' || c >= 0x7F || c == '"' || c == '<' || c == '>' || c == '\\' || c == '^' || c == '`' || c == '{' || c == '|' || c == '}')
+                return false;
+        }
+        return true;
+    }
+
+    // GS1 check digit: weights 3,1,3,... from the digit left of the check digit
+    public static boolean ean13(CharSequence s) { return gtin(s, 13); }
+    public static boolean upcA(CharSequence s) { return gtin(s, 12); }
+
+    private static boolean gtin(CharSequence s, int len) {
+        if (s == null || s.length() != len) return false;
+        int sum = 0;
+        for (int i = len - 2, w = 3; i >= 0; i--, w = 4 - w) {
+            char c = s.charAt(i);
+            if (!digit(c)) return false;
+            sum += (c - '0') * w;
+        }
+        char check = s.charAt(len - 1);
+        return digit(check) && check - '0' == (10 - sum % 10) % 10;
+    }
+
+    // LDH labels of 1..63 chars, not starting or ending with '-'; email hosts need a dot and an alphabetic TLD
+    private static boolean host(CharSequence s, int from, int to, boolean needsTld) {
+        if (to - from < 1 || to - from > 253) return false;
+        int labelStart = from, labels = 0, len = 0;
+        boolean alpha = true;
+        for (int i = from; i <= to; i++) {
+            char c = i < to ? s.charAt(i) : '.';
+            if (c == '.') {
+                len = i - labelStart;
+                if (len < 1 || len > 63 || s.charAt(labelStart) == '-' || s.charAt(i - 1) == '-') return false;
+                labels++;
+                labelStart = i + 1;
+                if (i < to) alpha = true;
+            } else if (letter(c)) continue;
+            else if (digit(c) || c == '-') alpha = false;
+            else return false;
+        }
+        // after the loop len and alpha describe the last label
+        return !needsTld || (labels >= 2 && alpha && len >= 2);
+    }
+
+    private static boolean startsWith(CharSequence s, String prefix) {
+        if (s.length() < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) if (Character.toLowerCase(s.charAt(i)) != prefix.charAt(i)) return false;
+        return true;
+    }
+
+    private static boolean digit(char c) { return c >= '0' && c <= '9'; }
+    private static boolean letter(char c) { return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'); }
+    private static boolean hex(char c) { return c < 128 && HEX[c]; }
+
+    private static boolean hexRun(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) if (!hex(s.charAt(i))) return false;
+        return true;
+    }
+
+    private static final boolean[] HEX = new boolean[128];
+    static { for (char c : "0123456789abcdefABCDEF".toCharArray()) HEX[c] = true; }
+
+    // RFC 5322 atext
+    private static boolean atext(char c) {
+        return letter(c) || digit(c) || "!#$%&'*+/=?^_`{|}~-".indexOf(c) >= 0;
+    }
+
+    // A reusable window onto a char[] (e.g. JsonParser.getTextCharacters()) so streamed values needn't become Strings
+    public static final class View implements CharSequence {
+        private char[] buf;
+        private int off, len;
+
+        public View wrap(char[] buf, int off, int len) { this.buf = buf; this.off = off; this.len = len; return this; }
+
+        @Override public int length() { return len; }
+        @Override public char charAt(int i) { return buf[off + i]; }
+        @Override public CharSequence subSequence(int start, int end) { return new String(buf, off + start, end - start); }
+        @Override public String toString() { return new String(buf, off, len); }
+    }
+}
@@ -0,0 +1,100 @@
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fetches image URLs concurrently (bounded) and reads just enough of each body to get its real size
+public class Images {
+
+    public static final int MAX_IN_FLIGHT = Integer.getInteger("images.maxInFlight", 8);
+    public static final Duration TIMEOUT = Duration.parse(System.getProperty("images.timeout", "PT20S"));
+
+    // Image host the API links to, and where to fetch it from instead. Against the stub that's the stub itself.
+    public static final String HOST = "https://picsum.photos";
+    public static final String MIRROR = System.getProperty("images.mirror",
+            "stub".equalsIgnoreCase(System.getProperty("api.base")) ? Stub.sharedImages() : "");
+
+    private static final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    public record Probe(String url, int status, Dimensions.Size size, long bytesRead, String error) {
+        public boolean ok() { return error == null && status == 200 && size != null; }
+        @Override public String toString() {
+            return url + " -> " + (error != null ? error : status + " " + size + " (" + bytesRead + " bytes read)");
+        }
+    }
+
+    // At most maxInFlight fetches at once; each future completes as soon as its header has been read
+    public static List<CompletableFuture<Probe>> probe(List<String> urls, int maxInFlight) {
+        List<CompletableFuture<Probe>> out = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) out.add(new CompletableFuture<>());
+        AtomicInteger next = new AtomicInteger();
+        for (int w = 0; w < Math.min(maxInFlight, urls.size()); w++) pump(urls, out, next);
+        return out;
+    }
+
+    public static List<Probe> probeAll(List<String> urls) {
+        return probe(urls, MAX_IN_FLIGHT).stream().map(CompletableFuture::join).toList();
+    }
+
+    private static void pump(List<String> urls, List<CompletableFuture<Probe>> out, AtomicInteger next) {
+        int i = next.getAndIncrement();
+        if (i >= urls.size()) return;
+        CompletableFuture.supplyAsync(() -> probe(urls.get(i)), Async.executor()).whenComplete((p, err) -> {
+            out.get(i).complete(p != null ? p : new Probe(urls.get(i), -1, null, 0, String.valueOf(err)));
+            pump(urls, out, next);
+        });
+    }
+
+    // Closing the body after the header cancels the rest of the download
+    public static Probe probe(String url) {
+        String target = resolve(url);
+        HttpRequest req = HttpRequest.newBuilder(URI.create(target)).timeout(TIMEOUT).GET().build();
+        try {
+            HttpResponse<InputStream> res = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream raw = res.body(); Counting in = new Counting(raw)) {
+                if (res.statusCode() != 200) return new Probe(url, res.statusCode(), null, 0, "HTTP " + res.statusCode());
+                Dimensions.Size size = Dimensions.read(new BufferedInputStream(in, 2048));
+                return new Probe(url, 200, size, in.count, size == null ? "Unknown image format" : null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Probe(url, -1, null, 0, "Interrupted");
+        } catch (Exception e) {
+            return new Probe(url, -1, null, 0, e.toString());
+        }
+    }
+
+    static String resolve(String url) {
+        return MIRROR.isEmpty() || !url.startsWith(HOST + "/") ? url : MIRROR + url.substring(HOST.length());
+    }
+
+    private static final class Counting extends FilterInputStream {
+        long count;
+
+        Counting(InputStream in) { super(in); }
+
+        @Override public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
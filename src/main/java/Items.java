@@ -0,0 +1,65 @@
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Walks the "data" array one element at a time, so memory use doesn't grow with _quantity
+public class Items {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static int count(Response res) {
+        return walk(res.asInputStream(), p -> p.skipChildren());
+    }
+
+    public static int each(Response res, Consumer<JsonNode> check) {
+        return each(res.asInputStream(), check);
+    }
+
+    public static int each(InputStream body, Consumer<JsonNode> check) {
+        return walk(body, p -> check.accept(mapper.readTree(p)));
+    }
+
+    // Hands each item's top-level string field to the check without building the item (null when absent)
+    public static int field(Response res, String name, Consumer<String> check) {
+        return walk(res.asInputStream(), p -> {
+            String value = null;
+            if (p.currentToken() == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    boolean match = name.equals(p.currentName());
+                    JsonToken t = p.nextToken();
+                    if (match && t.isScalarValue()) value = p.getValueAsString();
+                    else p.skipChildren();
+                }
+            } else p.skipChildren();
+            check.accept(value);
+        });
+    }
+
+    private interface Step { void on(JsonParser p) throws IOException; }
+
+    private static int walk(InputStream body, Step step) {
+        try (JsonParser p = mapper.getFactory().createParser(body)) {
+            if (!toData(p)) return 0;
+            int n = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) { step.on(p); n++; }
+            return n;
+        } catch (IOException e) { throw new UncheckedIOException("Cannot stream response data", e); }
+    }
+
+    // Positions the parser on the START_ARRAY of the top-level "data" field
+    static boolean toData(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) return false;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            boolean data = "data".equals(p.currentName());
+            if (p.nextToken() == JsonToken.START_ARRAY && data) return true;
+            p.skipChildren();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,112 @@
+import io.restassured.response.Response;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Open-loop load generator: requests leave on a fixed schedule whether or not earlier ones have returned
+public class Load {
+
+    public static final int MAX_IN_FLIGHT = Integer.getInteger("load.maxInFlight", 5000);
+
+    public record Scenario(String name, double weight, Supplier<Api.Request> request, Consumer<Response> check) { }
+
+    public static class Stats {
+        // Latency from the *intended* send time, so a stalled server can't hide its queueing (coordinated omission)
+        final Histogram latency = new ConcurrentHistogram(3);
+        // Time from actual send to completion, for comparison
+        final Histogram service = new ConcurrentHistogram(3);
+        final LongAdder ok = new LongAdder(), errors = new LongAdder(), dropped = new LongAdder();
+
+        public Histogram latency() { return latency; }
+        public Histogram service() { return service; }
+        public long ok() { return ok.sum(); }
+        public long errors() { return errors.sum(); }
+        public long dropped() { return dropped.sum(); }
+        public long completed() { return ok() + errors(); }
+        public double errorRate() { long n = completed() + dropped(); return n == 0 ? 0 : (double) (errors() + dropped()) / n; }
+    }
+
+    public record Result(double targetRps, double seconds, Stats total, Map<String, Stats> byScenario) {
+        public double throughput() { return total.completed() / seconds; }
+        public double errorRate() { return total.errorRate(); }
+
+        @Override public String toString() {
+            StringBuilder sb = new StringBuilder(String.format("target %.0f rps for %.1fs: %.1f rps achieved, %.2f%% errors%n",
+                    targetRps, seconds, throughput(), 100 * errorRate()));
+            line(sb, "all", total);
+            byScenario.forEach((name, s) -> line(sb, name, s));
+            return sb.toString();
+        }
+
+        private static void line(StringBuilder sb, String name, Stats s) {
+            Histogram h = s.latency;
+            sb.append(String.format("  %-28s ok=%d err=%d drop=%d p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms%n",
+                    name, s.ok(), s.errors(), s.dropped(), ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9), h.getMaxValue() / 1000.0));
+        }
+
+        private static double ms(Histogram h, double p) { return h.getValueAtPercentile(p) / 1000.0; }
+    }
+
+    public static Result run(List<Scenario> mix, double rps, Duration duration) {
+        double[] cumulative = new double[mix.size()];
+        double sum = 0;
+        for (int i = 0; i < mix.size(); i++) cumulative[i] = sum += mix.get(i).weight();
+        Stats total = new Stats();
+        Map<String, Stats> byScenario = new LinkedHashMap<>();
+        Stats[] stats = new Stats[mix.size()];
+        for (int i = 0; i < mix.size(); i++) stats[i] = byScenario.computeIfAbsent(mix.get(i).name(), k -> new Stats());
+
+        SplittableRandom rnd = new SplittableRandom(42);
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        Phaser pending = new Phaser(1);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime(), end = start + duration.toNanos();
+
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            double pick = rnd.nextDouble() * sum;
+            int i = 0;
+            while (cumulative[i] < pick) i++;
+            Scenario scenario = mix.get(i);
+            Stats s = stats[i];
+            if (!inFlight.tryAcquire()) { s.dropped.increment(); total.dropped.increment(); continue; }
+            long scheduled = intended;
+            pending.register();
+            Async.executor().execute(() -> {
+                long sent = System.nanoTime();
+                boolean passed = false;
+                try {
+                    // Single attempt: a retried 5xx or a throttled sender would hide what the server did at this rate
+                    Response res = scenario.request().get().sendOnce();
+                    if (res.statusCode() / 100 == 2) { scenario.check().accept(res); passed = true; }
+                } catch (RuntimeException | AssertionError e) {
+                    // counted below, like any non-2xx
+                } finally {
+                    long done = System.nanoTime();
+                    for (Stats t : new Stats[]{s, total}) {
+                        t.latency.recordValue((done - scheduled) / 1000);
+                        t.service.recordValue((done - sent) / 1000);
+                        (passed ? t.ok : t.errors).increment();
+                    }
+                    inFlight.release();
+                    pending.arriveAndDeregister();
+                }
+            });
+        }
+        pending.arriveAndAwaitAdvance();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(rps, seconds, total, byScenario);
+    }
+}
@@ -0,0 +1,178 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Per-request latency phases and payload sizes, kept per endpoint and per param set
+public class Metrics {
+
+    public static final String[] PHASES = {"dns", "connect", "ttfb", "total"};
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ThreadLocal<Timing> current = new ThreadLocal<>();
+    private static final Map<String, Series> byEndpoint = new ConcurrentHashMap<>();
+    private static final Map<String, Series> byParams = new ConcurrentHashMap<>();
+
+    // Phases of the request running on this thread; HttpClient executes synchronously on the caller
+    public static class Timing {
+        final long start = System.nanoTime();
+        long dns = -1, connect = -1, ttfb = -1;
+        // Body bytes as received (before decompression), -1 when the response never hit the wire
+        long wire = -1;
+        String encoding;
+    }
+
+    static Timing current() { return current.get(); }
+
+    public static Timing start() {
+        Timing t = new Timing();
+        current.set(t);
+        return t;
+    }
+
+    static void dns(long nanos) { Timing t = current.get(); if (t != null) t.dns = Math.max(t.dns, 0) + nanos; }
+    static void connect(long nanos) { Timing t = current.get(); if (t != null) t.connect = Math.max(t.connect, 0) + nanos; }
+    static void retry(String endpoint, long backoffNanos) { series(endpoint).retries.recordValue(backoffNanos / 1000); }
+    static void throttled(String endpoint, long waitNanos) { series(endpoint).throttled.recordValue(waitNanos / 1000); }
+    static void rejected(String endpoint) { series(endpoint).rejected.increment(); }
+    private static Series series(String endpoint) { return byEndpoint.computeIfAbsent(endpoint, Series::new); }
+
+    static void headers() { Timing t = current.get(); if (t != null && t.ttfb < 0) t.ttfb = System.nanoTime() - t.start; }
+
+    public static void record(String endpoint, Map<String, Object> params, Timing t, long bytes) {
+        current.remove();
+        long total = System.nanoTime() - t.start;
+        series(endpoint).add(t, total, bytes);
+        byParams.computeIfAbsent(Api.key(endpoint, params), Series::new).add(t, total, bytes);
+    }
+
+    public static Map<String, Series> endpoints() { return new TreeMap<>(byEndpoint); }
+    public static Map<String, Series> paramSets() { return new TreeMap<>(byParams); }
+
+    public static class Series {
+        final String key;
+        // Latencies in microseconds; connect and dns only count requests that opened a connection
+        final Histogram dns = new ConcurrentHistogram(2), connect = new ConcurrentHistogram(2),
+                ttfb = new ConcurrentHistogram(2), total = new ConcurrentHistogram(2), bytes = new ConcurrentHistogram(2);
+        // Per endpoint only: backoff slept before each retry, time spent waiting on the Throttle, 429/503 count
+        final Histogram retries = new ConcurrentHistogram(2), throttled = new ConcurrentHistogram(2);
+        final LongAdder rejected = new LongAdder();
+        // Compressed vs decoded body bytes, over the responses that came off the wire
+        final Histogram wire = new ConcurrentHistogram(2);
+        final LongAdder wireTotal = new LongAdder(), decodedTotal = new LongAdder(), compressed = new LongAdder();
+
+        Series(String key) { this.key = key; }
+
+        void add(Timing t, long totalNanos, long size) {
+            if (t.dns >= 0) dns.recordValue(t.dns / 1000);
+            if (t.connect >= 0) connect.recordValue(Math.max(0, t.connect - Math.max(t.dns, 0)) / 1000);
+            if (t.ttfb >= 0) ttfb.recordValue(t.ttfb / 1000);
+            total.recordValue(totalNanos / 1000);
+            bytes.recordValue(size);
+            if (t.wire >= 0) {
+                wire.recordValue(t.wire);
+                wireTotal.add(t.wire);
+                decodedTotal.add(size);
+                if (t.encoding != null && !t.encoding.equalsIgnoreCase("identity")) compressed.increment();
+            }
+        }
+
+        public Histogram phase(String name) {
+            return switch (name) {
+                case "dns" -> dns;
+                case "connect" -> connect;
+                case "ttfb" -> ttfb;
+                case "bytes" -> bytes;
+                default -> total;
+            };
+        }
+
+        public long count() { return total.getTotalCount(); }
+        public long retries() { return retries.getTotalCount(); }
+        public long wireBytes() { return wireTotal.sum(); }
+        public long decodedBytes() { return decodedTotal.sum(); }
+        public long compressed() { return compressed.sum(); }
+        public double savedPercent() { long d = decodedBytes(); return d == 0 ? 0 : 100.0 * (d - wireBytes()) / d; }
+        public long rejected() { return rejected.sum(); }
+        public long throttledMillis() { return (long) (throttled.getMean() * throttled.getTotalCount() / 1000); }
+    }
+
+    // ===== REPORT =====
+
+    public static void writeReport(Path dir) {
+        try {
+            Files.createDirectories(dir);
+            ObjectNode root = mapper.createObjectNode();
+            root.set("endpoints", toJson(endpoints()));
+            root.set("paramSets", toJson(paramSets()));
+            mapper.writerWithDefaultPrettyPrinter().writeValue(dir.resolve("perf-report.json").toFile(), root);
+            Files.writeString(dir.resolve("perf-report.html"), toHtml());
+        } catch (IOException e) { throw new UncheckedIOException("Cannot write performance report to " + dir, e); }
+    }
+
+    private static ArrayNode toJson(Map<String, Series> series) {
+        ArrayNode out = mapper.createArrayNode();
+        series.forEach((key, s) -> {
+            ObjectNode row = out.addObject().put("key", key).put("requests", s.count());
+            for (String phase : PHASES) percentiles(row.putObject(phase + "_us"), s.phase(phase));
+            percentiles(row.putObject("bytes"), s.bytes);
+            percentiles(row.putObject("wire_bytes"), s.wire);
+            row.put("wire_total", s.wireBytes()).put("decoded_total", s.decodedBytes())
+                    .put("compressed_responses", s.compressed()).put("saved_pct", Math.round(s.savedPercent() * 10) / 10.0);
+            if (s.retries() > 0 || s.rejected() > 0 || s.throttled.getTotalCount() > 0) {
+                row.put("rejected", s.rejected()).put("retries", s.retries()).put("throttled_ms", s.throttledMillis());
+                percentiles(row.putObject("backoff_us"), s.retries);
+                percentiles(row.putObject("throttle_wait_us"), s.throttled);
+            }
+        });
+        return out;
+    }
+
+    private static void percentiles(ObjectNode node, Histogram h) {
+        node.put("count", h.getTotalCount()).put("p50", h.getValueAtPercentile(50)).put("p95", h.getValueAtPercentile(95))
+                .put("p99", h.getValueAtPercentile(99)).put("max", h.getMaxValue());
+    }
+
+    private static String toHtml() {
+        StringBuilder sb = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>API performance</title>"
+                + "<style>body{font-family:sans-serif}table{border-collapse:collapse;margin-bottom:2em}"
+                + "td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}td:first-child{text-align:left}</style>"
+                + "</head><body><h1>API performance</h1>");
+        table(sb, "Per endpoint", endpoints());
+        table(sb, "Per param set", paramSets());
+        return sb.append("</body></html>").toString();
+    }
+
+    private static void table(StringBuilder sb, String title, Map<String, Series> series) {
+        sb.append("<h2>").append(title).append("</h2><table><tr><th>Request</th><th>n</th>");
+        for (String phase : PHASES) sb.append("<th>").append(phase).append(" p50/p95/p99/max (ms)</th>");
+        sb.append("<th>bytes p50/max</th><th>wire / decoded total (saved)</th><th>429/503</th><th>retries</th><th>throttled (ms)</th></tr>");
+        Function<Histogram, String> ms = h -> h.getTotalCount() == 0 ? "-" : String.format("%.1f / %.1f / %.1f / %.1f",
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(95) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0);
+        series.forEach((key, s) -> {
+            sb.append("<tr><td>").append(escape(key)).append("</td><td>").append(s.count()).append("</td>");
+            for (String phase : PHASES) sb.append("<td>").append(ms.apply(s.phase(phase))).append("</td>");
+            sb.append("<td>").append(s.bytes.getValueAtPercentile(50)).append(" / ").append(s.bytes.getMaxValue()).append("</td>");
+            sb.append("<td>").append(s.wireBytes()).append(" / ").append(s.decodedBytes())
+                    .append(String.format(" (%.1f%%)", s.savedPercent())).append("</td>");
+            sb.append("<td>").append(s.rejected()).append("</td><td>").append(s.retries()).append("</td><td>")
+                    .append(s.throttledMillis()).append("</td></tr>");
+        });
+        sb.append("</table>");
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
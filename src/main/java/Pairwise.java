@@ -0,0 +1,159 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// t-wise covering arrays over request parameters: every combination of values for any t parameters
+// appears in at least one row, in far fewer rows than the full cross product
+public class Pairwise {
+
+    private static final int CANDIDATES = 30;
+
+    public static class Factors {
+        private final Map<String, List<?>> values = new LinkedHashMap<>();
+
+        public Factors add(String param, List<?> levels) {
+            if (levels.isEmpty()) throw new IllegalArgumentException("No values for " + param);
+            values.put(param, List.copyOf(levels));
+            return this;
+        }
+
+        public Factors add(String param, int[] levels) {
+            List<Integer> boxed = new ArrayList<>(levels.length);
+            for (int v : levels) boxed.add(v);
+            return add(param, boxed);
+        }
+
+        public Factors add(String param, double[] levels) {
+            List<Double> boxed = new ArrayList<>(levels.length);
+            for (double v : levels) boxed.add(v);
+            return add(param, boxed);
+        }
+
+        public long crossProduct() {
+            long n = 1;
+            for (List<?> l : values.values()) n *= l.size();
+            return n;
+        }
+    }
+
+    public static List<Api.Request> requests(String endpoint, Factors factors, int strength) {
+        List<Api.Request> out = new ArrayList<>();
+        for (Map<String, Object> row : cover(factors, strength)) {
+            Api.Request req = new Api.Request(endpoint);
+            row.forEach(req::param);
+            out.add(req);
+        }
+        return out;
+    }
+
+    // Greedy AETG-style construction, seeded so the same data files always give the same rows
+    public static List<Map<String, Object>> cover(Factors factors, int strength) {
+        String[] names = factors.values.keySet().toArray(new String[0]);
+        List<?>[] levels = factors.values.values().toArray(new List<?>[0]);
+        int n = names.length, t = Math.min(strength, n);
+        if (t < 1) throw new IllegalArgumentException("Strength must be at least 1: " + strength);
+        int[] size = new int[n];
+        for (int i = 0; i < n; i++) size[i] = levels[i].size();
+
+        List<Combo> combos = new ArrayList<>();
+        combinations(new int[t], 0, 0, n, size, combos);
+        List<List<Combo>> byFactor = new ArrayList<>();
+        for (int f = 0; f < n; f++) byFactor.add(new ArrayList<>());
+        long uncovered = 0;
+        for (Combo c : combos) {
+            for (int f : c.factors) byFactor.get(f).add(c);
+            uncovered += c.covered.length;
+        }
+
+        SplittableRandom rnd = new SplittableRandom(42);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        while (uncovered > 0) {
+            int[] best = null;
+            int bestGain = -1;
+            for (int k = 0; k < CANDIDATES; k++) {
+                int[] row = candidate(combos, byFactor, size, rnd);
+                int gain = 0;
+                for (Combo c : combos) if (!c.covered[c.index(row)]) gain++;
+                if (gain > bestGain) { best = row; bestGain = gain; }
+            }
+            for (Combo c : combos) {
+                int i = c.index(best);
+                if (!c.covered[i]) { c.covered[i] = true; uncovered--; }
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int f = 0; f < n; f++) row.put(names[f], levels[f].get(best[f]));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Starts from one uncovered tuple, then fills the other parameters in random order with the value
+    // that completes the most still-uncovered tuples
+    private static int[] candidate(List<Combo> combos, List<List<Combo>> byFactor, int[] size, SplittableRandom rnd) {
+        int n = size.length;
+        int[] row = new int[n];
+        Arrays.fill(row, -1);
+        int start = rnd.nextInt(combos.size());
+        for (int k = 0; k < combos.size(); k++) {
+            Combo c = combos.get((start + k) % combos.size());
+            int free = c.firstUncovered(rnd.nextInt(c.covered.length));
+            if (free < 0) continue;
+            for (int j = c.factors.length - 1; j >= 0; j--) { row[c.factors[j]] = free % size[c.factors[j]]; free /= size[c.factors[j]]; }
+            break;
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        for (int i = n - 1; i > 0; i--) { int j = rnd.nextInt(i + 1), tmp = order[i]; order[i] = order[j]; order[j] = tmp; }
+        for (int f : order) {
+            if (row[f] >= 0) continue;
+            int bestValue = 0, bestGain = -1, offset = rnd.nextInt(size[f]);
+            for (int v0 = 0; v0 < size[f]; v0++) {
+                int v = (v0 + offset) % size[f];
+                row[f] = v;
+                int gain = 0;
+                for (Combo c : byFactor.get(f)) if (c.assigned(row) && !c.covered[c.index(row)]) gain++;
+                if (gain > bestGain) { bestValue = v; bestGain = gain; }
+            }
+            row[f] = bestValue;
+        }
+        return row;
+    }
+
+    private static void combinations(int[] pick, int depth, int from, int n, int[] size, List<Combo> out) {
+        if (depth == pick.length) { out.add(new Combo(pick.clone(), size)); return; }
+        for (int f = from; f < n; f++) { pick[depth] = f; combinations(pick, depth + 1, f + 1, n, size, out); }
+    }
+
+    // One set of t parameters and which of their value tuples are already covered (mixed-radix index)
+    private static final class Combo {
+        final int[] factors, size;
+        final boolean[] covered;
+
+        Combo(int[] factors, int[] all) {
+            this.factors = factors;
+            this.size = new int[factors.length];
+            int total = 1;
+            for (int j = 0; j < factors.length; j++) { size[j] = all[factors[j]]; total *= size[j]; }
+            this.covered = new boolean[total];
+        }
+
+        boolean assigned(int[] row) {
+            for (int f : factors) if (row[f] < 0) return false;
+            return true;
+        }
+
+        int index(int[] row) {
+            int i = 0;
+            for (int j = 0; j < factors.length; j++) i = i * size[j] + row[factors[j]];
+            return i;
+        }
+
+        int firstUncovered(int from) {
+            for (int k = 0; k < covered.length; k++) { int i = (from + k) % covered.length; if (!covered[i]) return i; }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class Payload {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<Response, Payload> parsed = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final byte[] body;
+    private final ObjectNode envelope;
+    private final int count;
+    private volatile JsonNode root;
+
+    private Payload(byte[] body, ObjectNode envelope, int count) {
+        this.body = body;
+        this.envelope = envelope;
+        this.count = count;
+    }
+
+    // One parse per Response, shared by every check
+    public static Payload of(Response res) {
+        Payload p = parsed.get(res);
+        if (p != null) return p;
+        p = parse(res.asByteArray());
+        Payload prev = parsed.putIfAbsent(res, p);
+        return prev != null ? prev : p;
+    }
+
+    // Registers a parse done elsewhere (Api profiles the body as it arrives) so of() reuses it
+    public static void attach(Response res, Payload p) { parsed.putIfAbsent(res, p); }
+
+    // Streams the top level straight from the bytes: scalar fields are kept, "data" is only counted.
+    // The full tree is built on first use of data()/item()/root(), so status and count checks on a
+    // 1000-item response never materialize the items.
+    public static Payload parse(byte[] body) { return parse(body, null); }
+
+    // Same pass, but each item of "data" is walked by the drift recorder instead of skipped
+    public static Payload parse(byte[] body, Drift.Recorder drift) {
+        Payload payload = stream(body, drift);
+        if (drift != null) { if (payload.count >= 0) drift.commit(); else drift.discard(); }
+        return payload;
+    }
+
+    private static Payload stream(byte[] body, Drift.Recorder drift) {
+        if (body == null || body.length == 0) return new Payload(body, null, -1);
+        try (JsonParser p = mapper.getFactory().createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return new Payload(body, null, -1);
+            ObjectNode envelope = mapper.createObjectNode();
+            int count = -1;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken t = p.nextToken();
+                if ("data".equals(name)) {
+                    count = 0;
+                    if (t != JsonToken.START_ARRAY) p.skipChildren();
+                    else while (p.nextToken() != JsonToken.END_ARRAY) {
+                        if (drift != null) drift.item(p); else p.skipChildren();
+                        count++;
+                    }
+                } else envelope.set(name, mapper.readTree(p));
+            }
+            return new Payload(body, envelope, count);
+        } catch (IOException e) { return new Payload(body, null, -1); }
+    }
+
+    public boolean isJson() { return envelope != null; }
+    public String text(String field) { return envelope == null ? null : envelope.path(field).asText(null); }
+
+    public boolean has(String... fields) {
+        if (envelope == null) return false;
+        for (String f : fields) if ("data".equals(f) ? count < 0 : !envelope.has(f)) return false;
+        return true;
+    }
+
+    public int count() { return Math.max(count, 0); }
+
+    public JsonNode root() {
+        JsonNode r = root;
+        if (r == null) {
+            try { r = envelope == null ? MissingNode.getInstance() : mapper.readTree(body); }
+            catch (IOException e) { r = MissingNode.getInstance(); }
+            root = r;
+        }
+        return r;
+    }
+
+    public JsonNode data() { return root().path("data"); }
+    public JsonNode item(int i) { return data().path(i); }
+}
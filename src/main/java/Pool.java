@@ -0,0 +1,269 @@
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.methods.AbortableHttpRequest;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.protocol.RequestAcceptEncoding;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.ClientParamsStack;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@SuppressWarnings("deprecation") // RestAssured 5 still drives the HttpClient 4.x classic API
+public class Pool {
+
+    public static final int MAX_TOTAL = Integer.getInteger("api.pool.maxTotal", 64);
+    public static final int MAX_PER_ROUTE = Integer.getInteger("api.pool.maxPerRoute", 16);
+    public static final long IDLE_SECONDS = Long.getLong("api.pool.idleSeconds", 30);
+
+    // Accept-Encoding we negotiate and decode while the body is read: gzip,deflate (default), gzip, deflate or none
+    public static final List<String> COMPRESSION = codings(System.getProperty("api.compression", "gzip,deflate"));
+
+    private static final String ENCODING = "io.restassured.internal.http.ContentEncoding";
+
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder connections = new LongAdder();
+
+    private static final Manager manager = new Manager();
+    private static final Client client = new Client(manager);
+    private static final RestAssuredConfig config = RestAssuredConfig.config().httpClient(
+            HttpClientConfig.httpClientConfig().reuseHttpClientInstance().httpClientFactory(() -> client))
+            .decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+
+    // Evicts idle connections and fires Deadline aborts
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "api-pool-timer");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final ThreadLocal<Deadline> deadline = new ThreadLocal<>();
+
+    static {
+        long period = Math.max(1, IDLE_SECONDS / 2);
+        timer.scheduleWithFixedDelay(() -> {
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(IDLE_SECONDS, TimeUnit.SECONDS);
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    public static RestAssuredConfig config() { return config; }
+
+    // Timeouts for the requests this thread sends until close(). RestAssured copies HttpClientConfig params
+    // onto the client itself, which is shared here, so per-request values set that way would leak into every
+    // other thread's requests. These go on the request's own params stack instead (Client.determineParams).
+    public static Deadline deadline(Duration connect, Duration read, long atNanos) {
+        Deadline d = new Deadline(connect, read, atNanos);
+        deadline.set(d);
+        return d;
+    }
+
+    // Connect and read (socket) timeouts per request, plus an absolute time at which the request is aborted,
+    // so a server that trickles bytes can't hold a call past it. Close it once the body has been read.
+    public static final class Deadline implements AutoCloseable {
+        private final HttpParams params = new BasicHttpParams();
+        private final long at;
+        private volatile ScheduledFuture<?> abort;
+        private volatile boolean expired;
+
+        private Deadline(Duration connect, Duration read, long at) {
+            this.at = at;
+            long left = Math.max(1, (at - System.nanoTime()) / 1_000_000);
+            params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, (int) Math.min(connect.toMillis(), left));
+            params.setIntParameter(CoreConnectionPNames.SO_TIMEOUT, (int) Math.min(read.toMillis(), left));
+            params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, left);
+        }
+
+        private void arm(HttpRequest req) {
+            if (req instanceof AbortableHttpRequest a)
+                abort = timer.schedule(() -> { expired = true; a.abort(); }, Math.max(0, at - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        // The abort fired: whatever the request threw is down to the deadline
+        public boolean expired() { return expired; }
+
+        @Override
+        public void close() {
+            if (deadline.get() == this) deadline.remove();
+            if (abort != null) abort.cancel(false);
+        }
+    }
+
+    private static List<String> codings(String v) {
+        List<String> out = new ArrayList<>();
+        for (String s : v.split(",")) {
+            s = s.trim().toLowerCase();
+            if (s.equals("gzip") || s.equals("deflate")) out.add(s);
+            else if (!s.isEmpty() && !s.equals("none") && !s.equals("off")) throw new IllegalArgumentException("Unsupported api.compression: " + s);
+        }
+        return List.copyOf(out);
+    }
+
+    public static Stats stats() {
+        var pool = manager.getTotalStats();
+        return new Stats(requests.sum(), connections.sum(), pool.getLeased(), pool.getAvailable());
+    }
+
+    public record Stats(long requests, long connections, int leased, int idle) {
+        public long reused() { return Math.max(0, requests - connections); }
+        public double reuseRate() { return requests == 0 ? 0 : 100.0 * reused() / requests; }
+        @Override public String toString() {
+            return String.format("%d requests over %d connections (%.1f%% reused, %d leased, %d idle)",
+                    requests, connections, reuseRate(), leased, idle);
+        }
+    }
+
+    private static class Manager extends PoolingClientConnectionManager {
+        Manager() {
+            super(SchemeRegistryFactory.createDefault());
+            setMaxTotal(MAX_TOTAL);
+            setDefaultMaxPerRoute(MAX_PER_ROUTE);
+        }
+
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+            DnsResolver timedDns = host -> {
+                long start = System.nanoTime();
+                try { return SystemDefaultDnsResolver.INSTANCE.resolve(host); }
+                finally { Metrics.dns(System.nanoTime() - start); }
+            };
+            return new DefaultClientConnectionOperator(schemes, timedDns) {
+                @Override
+                public void openConnection(OperatedClientConnection conn, HttpHost target,
+                                           InetAddress local, HttpContext ctx, HttpParams params) throws IOException {
+                    connections.increment();
+                    long start = System.nanoTime();
+                    try { super.openConnection(conn, target, local, ctx, params); }
+                    finally { Metrics.connect(System.nanoTime() - start); }
+                }
+            };
+        }
+    }
+
+    // Counts the bytes read off the socket, before any decompression
+    private static class Counted extends HttpEntityWrapper {
+        private final Metrics.Timing timing;
+
+        Counted(HttpEntity entity, Metrics.Timing timing) { super(entity); this.timing = timing; }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) timing.wire++;
+                    return b;
+                }
+
+                @Override public int read(byte[] buf, int off, int len) throws IOException {
+                    int n = super.read(buf, off, len);
+                    if (n > 0) timing.wire += n;
+                    return n;
+                }
+            };
+        }
+    }
+
+    // RestAssured removes and re-adds its content-encoding interceptors on every request, which races on a
+    // shared client. Its decoders are switched off in config() and the client negotiates compression itself,
+    // so those interceptors are simply never installed.
+    private static class Client extends DefaultHttpClient {
+        Client(Manager manager) {
+            super(manager);
+            setKeepAliveStrategy((res, ctx) -> {
+                long advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(res, ctx);
+                long max = TimeUnit.SECONDS.toMillis(IDLE_SECONDS);
+                return advertised > 0 ? Math.min(advertised, max) : max;
+            });
+            addRequestInterceptor((req, ctx) -> requests.increment());
+            if (!COMPRESSION.isEmpty()) addRequestInterceptor(new RequestAcceptEncoding(COMPRESSION));
+            addResponseInterceptor((res, ctx) -> {
+                Metrics.headers();
+                if (res.getEntity() != null) res.setEntity(decode(res, Metrics.current()));
+            });
+        }
+
+        // Counts the raw bytes, then inflates lazily as the body is read so RestAssured sees plain JSON.
+        // HttpClient's ResponseContentEncoding would also drop Content-Length, and this (legacy) client
+        // decides keep-alive after the interceptors run, so every compressed response would close its connection.
+        private static HttpEntity decode(HttpResponse res, Metrics.Timing t) {
+            Header header = res.getFirstHeader("Content-Encoding");
+            String enc = header == null ? null : header.getValue().trim().toLowerCase();
+            HttpEntity entity = res.getEntity();
+            if (t != null) {
+                t.encoding = enc;
+                t.wire = 0;
+                entity = new Counted(entity, t);
+            }
+            if (enc == null) return entity;
+            if ((enc.equals("gzip") || enc.equals("x-gzip")) && COMPRESSION.contains("gzip")) entity = new GzipDecompressingEntity(entity);
+            else if (enc.equals("deflate") && COMPRESSION.contains("deflate")) entity = new DeflateDecompressingEntity(entity);
+            else return entity;
+            res.removeHeaders("Content-Encoding");
+            return entity;
+        }
+
+        // Layers the calling thread's Deadline over the request and client params
+        @Override
+        protected HttpParams determineParams(HttpRequest req) {
+            Deadline d = deadline.get();
+            if (d == null) return super.determineParams(req);
+            d.arm(req);
+            return new ClientParamsStack(null, getParams(), req.getParams(), d.params);
+        }
+
+        private static boolean restAssured(Class<?> c) { return c.getName().startsWith(ENCODING); }
+
+        @Override
+        public synchronized void removeRequestInterceptorByClass(Class<? extends HttpRequestInterceptor> c) {
+            if (!restAssured(c)) super.removeRequestInterceptorByClass(c);
+        }
+
+        @Override
+        public synchronized void removeResponseInterceptorByClass(Class<? extends HttpResponseInterceptor> c) {
+            if (!restAssured(c)) super.removeResponseInterceptorByClass(c);
+        }
+
+        @Override
+        public synchronized void addRequestInterceptor(HttpRequestInterceptor itcp) {
+            if (!restAssured(itcp.getClass())) super.addRequestInterceptor(itcp);
+        }
+
+        @Override
+        public synchronized void addResponseInterceptor(HttpResponseInterceptor itcp) {
+            if (!restAssured(itcp.getClass())) super.addResponseInterceptor(itcp);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Statistical checks over tens of thousands of items: responses are streamed token by token into
+// fixed-size accumulators and dropped as soon as they are folded, so at most stats.maxInFlight bodies
+// are held at a time and no item or value outlives its response
+public class Population {
+
+    public static final int ITEMS = Integer.getInteger("stats.items", 10_000);
+    public static final int MAX_IN_FLIGHT = Integer.getInteger("stats.maxInFlight", 4);
+    // Allowed deviation in standard errors; 6 keeps false alarms below one in 10^8 per check
+    public static final double Z = Double.parseDouble(System.getProperty("stats.z", "6"));
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // Called with the parser on a scalar value of its field
+    public interface Accumulator {
+        void accept(JsonParser p) throws IOException;
+        void check(String field, List<String> anomalies);
+    }
+
+    public record Report(long items, int requests, List<String> anomalies, String summary) {
+        @Override public String toString() { return items + " items from " + requests + " requests: " + summary; }
+    }
+
+    public static Sample sample(String endpoint) { return new Sample(endpoint); }
+
+    public static class Sample {
+        private final String endpoint;
+        private final Map<String, Object> params = new LinkedHashMap<>();
+        private final Map<String, Accumulator> fields = new LinkedHashMap<>();
+        // Field name -> child node; names come from Jackson's symbol table, so lookups don't allocate
+        private final Node root = new Node();
+
+        Sample(String endpoint) { this.endpoint = endpoint; }
+        public Sample param(String k, Object v) { params.put(k, v); return this; }
+        public Sample locale(String v) { return param("_locale", v); }
+
+        // Dotted path into each item, e.g. "contact.gender"
+        public Sample on(String path, Accumulator acc) {
+            Node n = root;
+            for (String part : path.split("\\.")) n = n.children.computeIfAbsent(part, k -> new Node());
+            n.acc = acc;
+            fields.put(path, acc);
+            return this;
+        }
+
+        // Unseeded, so each request is a fresh draw. Each response is folded as it completes (one at a time, the
+        // accumulators aren't thread-safe) and dropped; only then does the next request go out, so at most
+        // MAX_IN_FLIGHT bodies are ever held and a slow fold slows the sending down
+        public Report run(int items) {
+            int requests = (items + Api.MAX_QTY - 1) / Api.MAX_QTY;
+            AtomicInteger next = new AtomicInteger(), left = new AtomicInteger(requests);
+            long[] n = {0};
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            if (requests == 0) done.complete(null);
+            for (int w = 0; w < Math.min(MAX_IN_FLIGHT, requests); w++) pump(items, next, left, n, done);
+            try { done.join(); }
+            catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                if (e.getCause() instanceof Error err) throw err;
+                throw e;
+            }
+            List<String> anomalies = new ArrayList<>();
+            StringBuilder summary = new StringBuilder();
+            fields.forEach((path, acc) -> {
+                acc.check(path, anomalies);
+                summary.append(summary.length() == 0 ? "" : "; ").append(path).append(' ').append(acc);
+            });
+            synchronized (this) { return new Report(n[0], requests, anomalies, summary.toString()); }
+        }
+
+        private void pump(int items, AtomicInteger next, AtomicInteger left, long[] n, CompletableFuture<Void> done) {
+            int i = next.getAndIncrement();
+            if (done.isDone() || i * Api.MAX_QTY >= items) return;
+            Api.Request req = new Api.Request(endpoint).qty(Math.min(items - i * Api.MAX_QTY, Api.MAX_QTY)).shared(false);
+            params.forEach(req::param);
+            req.sendAsync().whenComplete((res, err) -> {
+                try {
+                    if (err != null) throw err instanceof CompletionException ce && ce.getCause() != null ? ce.getCause() : err;
+                    if (res.statusCode() != 200)
+                        throw new IllegalStateException(Api.key(endpoint, params) + ": HTTP " + res.statusCode());
+                    synchronized (this) { n[0] += fold(res); }
+                } catch (Throwable e) {
+                    done.completeExceptionally(e);
+                    return;
+                }
+                if (left.decrementAndGet() == 0) done.complete(null);
+                else pump(items, next, left, n, done);
+            });
+        }
+
+        private long fold(Response res) {
+            try (JsonParser p = mapper.getFactory().createParser(res.asInputStream())) {
+                if (!Items.toData(p)) return 0;
+                long n = 0;
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    if (p.currentToken() == JsonToken.START_OBJECT) walk(p, root); else p.skipChildren();
+                    n++;
+                }
+                return n;
+            } catch (IOException e) { throw new UncheckedIOException("Cannot stream response data", e); }
+        }
+
+        private static void walk(JsonParser p, Node node) throws IOException {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                Node child = node.children.get(p.currentName());
+                JsonToken t = p.nextToken();
+                if (child == null) p.skipChildren();
+                else if (t == JsonToken.START_OBJECT) walk(p, child);
+                else if (child.acc != null && t.isScalarValue()) child.acc.accept(p);
+                else p.skipChildren();
+            }
+        }
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        Accumulator acc;
+    }
+
+    // ===== ACCUMULATORS =====
+
+    // Count, min, max and Welford mean/variance; uniform(lo, hi) checks the values look like U(lo, hi)
+    public static final class Numeric implements Accumulator {
+        long n, outside, missing;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, mean, m2;
+        private double lo = Double.NEGATIVE_INFINITY, hi = Double.POSITIVE_INFINITY;
+        private boolean uniform;
+
+        public Numeric uniform(double lo, double hi) { this.lo = lo; this.hi = hi; uniform = true; return this; }
+
+        @Override public void accept(JsonParser p) throws IOException {
+            if (!p.currentToken().isNumeric()) { missing++; return; }
+            double v = p.getDoubleValue();
+            n++;
+            if (v < lo || v > hi) outside++;
+            if (v < min) min = v;
+            if (v > max) max = v;
+            double d = v - mean;
+            mean += d / n;
+            m2 += d * (v - mean);
+        }
+
+        public double stddev() { return n < 2 ? 0 : Math.sqrt(m2 / (n - 1)); }
+
+        @Override public void check(String field, List<String> out) {
+            if (n == 0) { out.add(field + ": no numeric values"); return; }
+            if (missing > 0) out.add(field + ": " + missing + " non-numeric values");
+            if (outside > 0) out.add(String.format("%s: %d of %d outside [%s, %s] (min %s, max %s)", field, outside, n, lo, hi, min, max));
+            if (!uniform) return;
+            // U(lo, hi): sd = w/sqrt(12); the sample sd has standard error ~0.45 sd/sqrt(n) (kurtosis 1.8)
+            double w = hi - lo, sd = w / Math.sqrt(12), se = sd / Math.sqrt(n);
+            if (Math.abs(mean - (lo + hi) / 2) > Z * se)
+                out.add(String.format("%s: mean %.3f is more than %.0f standard errors from %.3f", field, mean, Z, (lo + hi) / 2));
+            if (Math.abs(stddev() - sd) > Z * 0.45 * se)
+                out.add(String.format("%s: sd %.3f, expected %.3f for a uniform draw", field, stddev(), sd));
+            // P(no value within 20w/n of an end) ~ e^-20
+            if (n >= 100 && (min - lo > 20 * w / n || hi - max > 20 * w / n))
+                out.add(String.format("%s: values only span [%s, %s] of [%s, %s]", field, min, max, lo, hi));
+        }
+
+        @Override public String toString() {
+            return String.format("n=%d min=%s max=%s mean=%.3f sd=%.3f", n, min, max, mean, stddev());
+        }
+    }
+
+    // Histogram over small non-negative ints (0..limit); only(v) expects every value to be v
+    public static final class IntCounts implements Accumulator {
+        final long[] counts;
+        long other;
+        private int only = -1;
+
+        public IntCounts(int limit) { counts = new long[limit + 1]; }
+        public IntCounts only(int v) { only = v; return this; }
+
+        @Override public void accept(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.VALUE_NUMBER_INT) { other++; return; }
+            int v = p.getIntValue();
+            if (v >= 0 && v < counts.length) counts[v]++; else other++;
+        }
+
+        public long total() { long t = other; for (long c : counts) t += c; return t; }
+
+        @Override public void check(String field, List<String> out) {
+            long total = total();
+            if (total == 0) out.add(field + ": no values");
+            else if (only >= 0 && (only >= counts.length || counts[only] != total))
+                out.add(String.format("%s: %d of %d values are not %d (%s)", field, total - (only < counts.length ? counts[only] : 0), total, only, this));
+        }
+
+        @Override public String toString() {
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < counts.length; i++) if (counts[i] > 0) sb.append(sb.length() == 1 ? "" : ", ").append(i).append('=').append(counts[i]);
+            if (other > 0) sb.append(sb.length() == 1 ? "" : ", ").append("other=").append(other);
+            return sb.append('}').toString();
+        }
+    }
+
+    // Counts of a fixed set of string values, compared against the parser's char buffer without building Strings;
+    // balanced() expects every value equally often
+    public static final class Categories implements Accumulator {
+        private final char[][] names;
+        final long[] counts;
+        long other;
+        private boolean balanced;
+
+        public Categories(List<String> values) {
+            names = new char[values.size()][];
+            for (int i = 0; i < names.length; i++) names[i] = values.get(i).toCharArray();
+            counts = new long[names.length];
+        }
+
+        public Categories balanced() { balanced = true; return this; }
+
+        @Override public void accept(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.VALUE_STRING) { other++; return; }
+            char[] buf = p.getTextCharacters();
+            int off = p.getTextOffset(), len = p.getTextLength();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length != len) continue;
+                int j = 0;
+                while (j < len && names[i][j] == buf[off + j]) j++;
+                if (j == len) { counts[i]++; return; }
+            }
+            other++;
+        }
+
+        @Override public void check(String field, List<String> out) {
+            long known = 0;
+            for (long c : counts) known += c;
+            if (other > 0) out.add(field + ": " + other + " values outside " + this);
+            if (!balanced || known == 0) return;
+            // Each share ~ Binomial(n, 1/k)
+            double p = 1.0 / names.length, se = Math.sqrt(p * (1 - p) / known);
+            for (int i = 0; i < names.length; i++) {
+                double share = (double) counts[i] / known;
+                if (Math.abs(share - p) > Z * se)
+                    out.add(String.format("%s: '%s' is %.2f%% of %d, expected %.2f%%", field, new String(names[i]), 100 * share, known, 100 * p));
+            }
+        }
+
+        @Override public String toString() {
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < names.length; i++) sb.append(i == 0 ? "" : ", ").append(names[i]).append('=').append(counts[i]);
+            return sb.append(", other=").append(other).append('}').toString();
+        }
+    }
+
+    // Every value must pass a Formats check; scanned straight from the parser's buffer
+    public static final class Matches implements Accumulator {
+        private final Formats.Kind kind;
+        private final Formats.View view = new Formats.View();
+        long n, failed;
+        private String first;
+
+        public Matches(Formats.Kind kind) { this.kind = kind; }
+
+        @Override public void accept(JsonParser p) throws IOException {
+            n++;
+            boolean ok = p.currentToken() == JsonToken.VALUE_STRING
+                    && kind.test(view.wrap(p.getTextCharacters(), p.getTextOffset(), p.getTextLength()));
+            if (!ok && failed++ == 0) first = p.getText();
+        }
+
+        @Override public void check(String field, List<String> out) {
+            if (n == 0) out.add(field + ": no values");
+            else if (failed > 0) out.add(String.format("%s: %d of %d are not a valid %s (first: '%s')", field, failed, n, kind, first));
+        }
+
+        @Override public String toString() { return kind + " " + (n - failed) + "/" + n; }
+    }
+
+    // Writing system of a text field: CJK (any Han/Hiragana/Katakana) or Latin (every letter <= U+024F)
+    public static final class Script implements Accumulator {
+        public enum Kind { LATIN, CJK }
+
+        long latin, cjk, other;
+        private final Kind expected;
+        private final double minShare;
+
+        public Script(Kind expected, double minShare) { this.expected = expected; this.minShare = minShare; }
+
+        @Override public void accept(JsonParser p) throws IOException {
+            if (p.currentToken() != JsonToken.VALUE_STRING) { other++; return; }
+            char[] buf = p.getTextCharacters();
+            boolean han = false, nonLatin = false;
+            for (int i = p.getTextOffset(), end = i + p.getTextLength(); i < end; i++) {
+                char c = buf[i];
+                if ((c >= 0x3040 && c <= 0x30FF) || (c >= 0x4E00 && c <= 0x9FFF)) han = true;
+                else if (c > 0x024F && Character.isLetter(c)) nonLatin = true;
+            }
+            if (han) cjk++; else if (nonLatin) other++; else latin++;
+        }
+
+        @Override public void check(String field, List<String> out) {
+            long n = latin + cjk + other, hits = expected == Kind.CJK ? cjk : latin;
+            if (n == 0) out.add(field + ": no values");
+            else if ((double) hits / n < minShare)
+                out.add(String.format("%s: %.1f%% %s, expected at least %.1f%% (%s)", field, 100.0 * hits / n, expected, 100 * minShare, this));
+        }
+
+        @Override public String toString() { return "{latin=" + latin + ", cjk=" + cjk + ", other=" + other + "}"; }
+    }
+}
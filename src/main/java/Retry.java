@@ -0,0 +1,68 @@
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Retries for idempotent GETs: 429, transient 5xx and I/O failures, with full-jitter exponential backoff.
+// A run-wide budget (a share of all requests) keeps a struggling server from being hit with retry storms.
+public class Retry {
+
+    public static final int MAX = Integer.getInteger("api.retry.max", 3);
+    public static final Duration BASE = Duration.parse(System.getProperty("api.retry.base", "PT0.1S"));
+    public static final Duration CAP = Duration.parse(System.getProperty("api.retry.cap", "PT5S"));
+    public static final double BUDGET = Double.parseDouble(System.getProperty("api.retry.budget", "0.2"));
+    public static final int MIN_BUDGET = Integer.getInteger("api.retry.minBudget", 10);
+
+    private static final LongAdder requests = new LongAdder();
+    private static final AtomicLong retries = new AtomicLong();
+
+    static void sent() { requests.increment(); }
+
+    public static long retries() { return retries.get(); }
+
+    public static boolean retriable(int status) { return status == 429 || status >= 500 && status != 501 && status < 600; }
+
+    public static boolean retriable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) if (t instanceof IOException) return true;
+        return false;
+    }
+
+    // Takes a retry from the budget when the attempt limit allows one; the CAS keeps concurrent callers from
+    // all passing the check and overdrawing it
+    static boolean allowed(int attempt) {
+        if (attempt >= MAX) return false;
+        for (long used = retries.get(); ; used = retries.get()) {
+            if (used >= MIN_BUDGET + BUDGET * requests.sum()) return false;
+            if (retries.compareAndSet(used, used + 1)) return true;
+        }
+    }
+
+    // Sleeps before the next attempt: random in [0, min(CAP, BASE * 2^attempt)], but never less than Retry-After,
+    // and never past the call's deadline (System.nanoTime() based)
+    static void backoff(String endpoint, int attempt, Duration retryAfter, long deadline) {
+        long ceiling = Math.min(CAP.toNanos(), BASE.toNanos() << Math.min(attempt, 30));
+        long sleep = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (retryAfter != null) sleep = Math.max(sleep, retryAfter.toNanos());
+        sleep = Math.max(0, Math.min(sleep, deadline - System.nanoTime()));
+        Metrics.retry(endpoint, sleep);
+        try { Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000)); }
+        catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    // Retry-After as delta-seconds or an HTTP date; null when absent or unreadable
+    public static Duration retryAfter(Response res) {
+        String v = res.getHeader("Retry-After");
+        if (v == null || v.isBlank()) return null;
+        try { return Duration.ofSeconds(Math.max(0, Long.parseLong(v.trim()))); }
+        catch (NumberFormatException e) {
+            try {
+                Duration d = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(v.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return d.isNegative() ? Duration.ZERO : d;
+            } catch (RuntimeException ignored) { return null; }
+        }
+    }
+}
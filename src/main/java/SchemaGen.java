@@ -0,0 +1,207 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Build step (generate-test-sources): turns each schema in src/test/resources/schemas/ into a Java class of
+// straight-line checks, so a 1000-item response is checked without walking the schema generically.
+// Compiles type, required, properties, items, enum, minimum/maximum, pattern and oneOf. A schema using any
+// other keyword is reported here and not registered, so it is always checked by the reference validator.
+public class SchemaGen {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Set<String> COMPILED = Set.of("type", "required", "properties", "items", "enum",
+            "minimum", "maximum", "pattern", "oneOf");
+    private static final Set<String> IGNORED = Set.of("$schema", "$id", "title", "description");
+
+    private final StringBuilder out = new StringBuilder();
+    private final StringBuilder helpers = new StringBuilder();
+    private final List<String> constants = new ArrayList<>();
+    private final Set<String> skipped = new TreeSet<>();
+    private int vars, methods;
+
+    public static void main(String[] args) throws IOException {
+        Path schemas = Path.of(args.length > 0 ? args[0] : "src/test/resources/schemas");
+        Path dir = Path.of(args.length > 1 ? args[1] : "target/generated-test-sources/schemas");
+        Files.createDirectories(dir);
+        File[] files = schemas.toFile().listFiles((d, n) -> n.endsWith(".json"));
+        if (files == null) throw new IOException("No schema directory: " + schemas);
+        Arrays.sort(files);
+
+        StringBuilder registry = new StringBuilder("import java.util.Map;\n\n")
+                .append("// Generated by SchemaGen from ").append(schemas).append(" - do not edit\n")
+                .append("public final class GeneratedSchemas {\n\n")
+                .append("    public static final Map<String, Schemas.Check> BY_FILE = Map.of(");
+        int registered = 0;
+        for (File file : files) {
+            String cls = className(file.getName());
+            SchemaGen gen = new SchemaGen();
+            String source = gen.generate(cls, file.getName(), mapper.readTree(file));
+            // A partial check would pass what the schema rejects, so such a schema gets no generated check at all
+            if (!gen.skipped.isEmpty()) {
+                Files.deleteIfExists(dir.resolve(cls + ".java"));
+                System.out.println("[schemagen] " + file.getName() + ": not compiled, reference validator only: " + gen.skipped);
+                continue;
+            }
+            Files.writeString(dir.resolve(cls + ".java"), source);
+            registry.append(registered++ == 0 ? "\n" : ",\n").append("            \"").append(file.getName()).append("\", new ").append(cls).append("()");
+        }
+        registry.append(");\n\n    private GeneratedSchemas() { }\n}\n");
+        Files.writeString(dir.resolve("GeneratedSchemas.java"), registry);
+        System.out.println("[schemagen] " + registered + " of " + files.length + " schemas -> " + dir);
+    }
+
+    static String className(String file) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : file.replace(".json", "").split("[^A-Za-z0-9]+"))
+            if (!part.isEmpty()) sb.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+        return sb.append("Check").toString();
+    }
+
+    private String generate(String cls, String file, JsonNode schema) {
+        out.append("    public String validate(JsonNode x0) {\n");
+        emit(schema, "x0", "\"\"", 2, false);
+        out.append("        return null;\n    }\n");
+
+        StringBuilder src = new StringBuilder()
+                .append("import com.fasterxml.jackson.databind.JsonNode;\n")
+                .append("import com.fasterxml.jackson.databind.ObjectMapper;\n")
+                .append("import java.util.regex.Pattern;\n\n")
+                .append("// Generated by SchemaGen from ").append(file).append(" - do not edit\n")
+                .append("final class ").append(cls).append(" implements Schemas.Check {\n\n")
+                .append("    private static final ObjectMapper mapper = new ObjectMapper();\n");
+        for (String c : constants) src.append("    ").append(c).append('\n');
+        src.append('\n').append(out).append(helpers);
+        src.append("\n    private static JsonNode json(String s) {\n")
+                .append("        try { return mapper.readTree(s); } catch (Exception e) { throw new IllegalStateException(e); }\n    }\n");
+        return src.append("}\n").toString();
+    }
+
+    // Appends the checks for one schema node applied to variable x. On failure the code returns the message
+    // (String mode) or false (boolean mode, used for oneOf alternatives). path is a Java expression, only
+    // evaluated on failure.
+    private void emit(JsonNode schema, String x, String path, int depth, boolean bool) {
+        String in = "    ".repeat(depth);
+        for (Iterator<String> it = schema.fieldNames(); it.hasNext(); ) {
+            String k = it.next();
+            if (!COMPILED.contains(k) && !IGNORED.contains(k)) skipped.add(k);
+        }
+
+        JsonNode type = schema.get("type");
+        if (type != null) {
+            List<String> types = new ArrayList<>();
+            if (type.isArray()) type.forEach(t -> types.add(t.asText())); else types.add(type.asText());
+            StringBuilder cond = new StringBuilder();
+            for (String t : types) cond.append(cond.length() == 0 ? "" : " || ").append(typeTest(t, x));
+            fail(in, "!(" + cond + ")", path + " + \": expected " + String.join("|", types) + ", got \" + " + x + ".getNodeType()", bool);
+        }
+
+        JsonNode en = schema.get("enum");
+        if (en != null) {
+            String name = "ENUM" + constants.size();
+            constants.add("private static final JsonNode " + name + " = json(" + literal(en.toString()) + ");");
+            String v = var();
+            out.append(in).append("boolean ").append(v).append(" = false;\n")
+                    .append(in).append("for (JsonNode e : ").append(name).append(") if (e.equals(").append(x).append(")) { ").append(v).append(" = true; break; }\n");
+            fail(in, "!" + v, path + " + \": not one of " + escape(en.toString()) + "\"", bool);
+        }
+
+        if (schema.has("minimum"))
+            fail(in, x + ".isNumber() && " + x + ".doubleValue() < " + schema.get("minimum").asDouble(),
+                    path + " + \": below minimum " + schema.get("minimum").asText() + "\"", bool);
+        if (schema.has("maximum"))
+            fail(in, x + ".isNumber() && " + x + ".doubleValue() > " + schema.get("maximum").asDouble(),
+                    path + " + \": above maximum " + schema.get("maximum").asText() + "\"", bool);
+
+        if (schema.has("pattern")) {
+            String name = "PATTERN" + constants.size();
+            constants.add("private static final Pattern " + name + " = Pattern.compile(" + literal(schema.get("pattern").asText()) + ");");
+            fail(in, x + ".isTextual() && !" + name + ".matcher(" + x + ".textValue()).find()",
+                    path + " + \": does not match " + escape(schema.get("pattern").asText()) + "\"", bool);
+        }
+
+        JsonNode oneOf = schema.get("oneOf");
+        if (oneOf != null && oneOf.isArray()) {
+            List<String> alts = new ArrayList<>();
+            for (JsonNode alt : oneOf) alts.add(alternative(alt));
+            StringBuilder sum = new StringBuilder();
+            for (String m : alts) sum.append(sum.length() == 0 ? "" : " + ").append("(").append(m).append("(").append(x).append(") ? 1 : 0)");
+            fail(in, "(" + sum + ") != 1", path + " + \": must match exactly one oneOf alternative\"", bool);
+        }
+
+        JsonNode required = schema.get("required");
+        JsonNode props = schema.get("properties");
+        if ((required != null && required.size() > 0) || props != null) {
+            out.append(in).append("if (").append(x).append(".isObject()) {\n");
+            if (required != null)
+                for (JsonNode r : required)
+                    fail(in + "    ", "!" + x + ".has(" + literal(r.asText()) + ")",
+                            path + " + \": missing required " + escape(literal(r.asText())) + "\"", bool);
+            if (props != null)
+                for (Iterator<String> it = props.fieldNames(); it.hasNext(); ) {
+                    String name = it.next();
+                    String v = var();
+                    out.append(in).append("    JsonNode ").append(v).append(" = ").append(x).append(".get(").append(literal(name)).append(");\n")
+                            .append(in).append("    if (").append(v).append(" != null) {\n");
+                    emit(props.get(name), v, path + " + \"/" + escape(name) + "\"", depth + 2, bool);
+                    out.append(in).append("    }\n");
+                }
+            out.append(in).append("}\n");
+        }
+
+        JsonNode items = schema.get("items");
+        if (items != null && items.isObject() && items.size() > 0) {
+            String i = "i" + depth, v = var();
+            out.append(in).append("if (").append(x).append(".isArray()) {\n")
+                    .append(in).append("    for (int ").append(i).append(" = 0; ").append(i).append(" < ").append(x).append(".size(); ").append(i).append("++) {\n")
+                    .append(in).append("        JsonNode ").append(v).append(" = ").append(x).append(".get(").append(i).append(");\n");
+            emit(items, v, path + " + \"/\" + " + i, depth + 2, bool);
+            out.append(in).append("    }\n").append(in).append("}\n");
+        }
+    }
+
+    // oneOf alternatives become boolean helpers so they can be counted
+    private String alternative(JsonNode schema) {
+        String name = "alt" + methods++;
+        StringBuilder saved = new StringBuilder(out);
+        out.setLength(0);
+        out.append("\n    private static boolean ").append(name).append("(JsonNode a0) {\n");
+        emit(schema, "a0", "\"\"", 2, true);
+        out.append("        return true;\n    }\n");
+        helpers.append(out);
+        out.setLength(0);
+        out.append(saved);
+        return name;
+    }
+
+    private void fail(String in, String cond, String message, boolean bool) {
+        out.append(in).append("if (").append(cond).append(") return ").append(bool ? "false" : message).append(";\n");
+    }
+
+    private static String typeTest(String type, String x) {
+        return switch (type) {
+            case "string" -> x + ".isTextual()";
+            case "integer" -> x + ".isIntegralNumber()";
+            case "number" -> x + ".isNumber()";
+            case "boolean" -> x + ".isBoolean()";
+            case "object" -> x + ".isObject()";
+            case "array" -> x + ".isArray()";
+            case "null" -> x + ".isNull()";
+            default -> throw new IllegalArgumentException("Unknown schema type: " + type);
+        };
+    }
+
+    private String var() { return "x" + (++vars); }
+
+    private static String literal(String s) { return "\"" + escape(s) + "\""; }
+
+    private static String escape(String s) { return s.replace("\\", "\\\\").replace("\"", "\\\""); }
+}
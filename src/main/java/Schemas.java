@@ -0,0 +1,88 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Schemas {
+
+    // off: reference validator only; on: the generated check when one exists; diff: both, failing when they disagree
+    public static final String FAST = System.getProperty("schema.fast", "off").toLowerCase();
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+    private static final Map<String, JsonSchema> compiled = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    // Compiled schemas are immutable and thread-safe, so one instance per path serves every test.
+    // Every lookup counts once: a miss if this thread compiled, a hit otherwise (also when it waited on another's compile)
+    public static JsonSchema get(String path) {
+        JsonSchema schema = compiled.get(path);
+        if (schema != null) { hits.increment(); return schema; }
+        boolean[] compiledHere = {false};
+        schema = compiled.computeIfAbsent(path, p -> { compiledHere[0] = true; return compile(p); });
+        (compiledHere[0] ? misses : hits).increment();
+        return schema;
+    }
+
+    private static JsonSchema compile(String path) {
+        File file = new File(path);
+        if (!file.exists()) throw new AssertionError("Schema not found: " + path);
+        try { return factory.getJsonSchema(mapper.readTree(file)); }
+        catch (IOException | ProcessingException e) { throw new RuntimeException("Cannot compile schema: " + path, e); }
+    }
+
+    // Implemented by the classes SchemaGen writes at build time; null means valid
+    public interface Check { String validate(JsonNode body); }
+
+    private static volatile Map<String, Check> generated;
+
+    public static void validate(JsonNode body, String path) {
+        Check fast = "off".equals(FAST) || "false".equals(FAST) ? null : fast(path);
+        if (fast == null) { fail(path, reference(body, path)); return; }
+        String error = fast.validate(body);
+        if ("diff".equals(FAST)) {
+            String expected = reference(body, path);
+            if ((error == null) != (expected == null))
+                throw new AssertionError("Generated validator disagrees with the reference for " + path
+                        + "\ngenerated: " + (error == null ? "valid" : error) + "\nreference: " + (expected == null ? "valid" : expected));
+            error = expected;
+        }
+        fail(path, error);
+    }
+
+    private static void fail(String path, String error) {
+        if (error != null) throw new AssertionError("Schema mismatch: " + path + "\n" + error);
+    }
+
+    // Full report from the generic validator, or null when valid
+    public static String reference(JsonNode body, String path) {
+        try {
+            var report = get(path).validate(body, true);
+            return report.isSuccess() ? null : report.toString();
+        } catch (ProcessingException e) { throw new AssertionError("Schema validation failed: " + path, e); }
+    }
+
+    // The generated check for the schema file, or null when the build didn't generate one
+    @SuppressWarnings("unchecked")
+    public static Check fast(String path) {
+        Map<String, Check> all = generated;
+        if (all == null) {
+            try { all = (Map<String, Check>) Class.forName("GeneratedSchemas").getField("BY_FILE").get(null); }
+            catch (ReflectiveOperationException e) { all = Map.of(); }
+            generated = all;
+        }
+        return all.get(new File(path).getName());
+    }
+
+    public static long hits() { return hits.sum(); }
+    public static long misses() { return misses.sum(); }
+    public static int size() { return compiled.size(); }
+    public static void clear() { compiled.clear(); hits.reset(); misses.reset(); }
+}
@@ -0,0 +1,484 @@
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.imageio.ImageIO;
+
+// Local stand-in for the four FakerAPI endpoints, good for offline runs and load tests
+public class Stub {
+
+    public static final String PATH = "/api/v2";
+    // Stand-in for https://picsum.photos: /picsum/{w}/{h}?image=N serves a real w x h image, and so does
+    // /picsum/{w}/{h}/{type}/N.{ext} in the format the extension names
+    public static final String IMAGES = "/picsum";
+
+    private static final JsonFactory json = new JsonFactory();
+    private static volatile Stub shared;
+
+    // The JDK server otherwise leaves Nagle on, which stalls every response on the client's delayed ACK
+    static { if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true"); }
+
+    private int port = Integer.getInteger("stub.port", 0);
+    private int threads = Integer.getInteger("stub.threads", 64);
+    private long latencyMs = Long.getLong("stub.latency", 0);
+    private long jitterMs = Long.getLong("stub.jitter", 0);
+    private double errorRate = Double.parseDouble(System.getProperty("stub.errorRate", "0"));
+    private double throttleRate = Double.parseDouble(System.getProperty("stub.throttleRate", "0"));
+    private long retryAfterSeconds = Long.getLong("stub.retryAfter", 1);
+    // Compress bodies of at least this many bytes when the client accepts gzip/deflate; negative turns it off
+    private int compressAbove = Integer.getInteger("stub.compressAbove", 256);
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public Stub port(int v) { port = v; return this; }
+    public Stub threads(int v) { threads = v; return this; }
+    public Stub latency(long ms) { latencyMs = ms; return this; }
+    public Stub jitter(long ms) { jitterMs = ms; return this; }
+    public Stub errorRate(double v) { errorRate = v; return this; }
+    public Stub throttleRate(double v) { throttleRate = v; return this; }
+    public Stub retryAfter(long seconds) { retryAfterSeconds = seconds; return this; }
+    public Stub compressAbove(int bytes) { compressAbove = bytes; return this; }
+
+    // One lazily started instance per JVM, used when -Dapi.base=stub
+    public static String shared() {
+        if (shared == null) synchronized (Stub.class) { if (shared == null) shared = new Stub().start(); }
+        return shared.base();
+    }
+
+    // Image root of the shared instance, for Images.MIRROR
+    public static String sharedImages() {
+        shared();
+        return shared.images();
+    }
+
+    public synchronized Stub start() {
+        try { server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024); }
+        catch (IOException e) { throw new UncheckedIOException("Cannot start stub on port " + port, e); }
+        AtomicInteger n = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "stub-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext(PATH + Api.PRODUCTS, ex -> handle(ex, this::product));
+        server.createContext(PATH + Api.USERS, ex -> handle(ex, this::user));
+        server.createContext(PATH + Api.COMPANIES, ex -> handle(ex, this::company));
+        server.createContext(PATH + Api.IMAGES, ex -> handle(ex, this::image));
+        server.createContext(IMAGES, this::picture);
+        server.start();
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (server != null) server.stop(0);
+        if (executor != null) executor.shutdownNow();
+    }
+
+    public String base() { return "http://127.0.0.1:" + server.getAddress().getPort() + PATH; }
+    public String images() { return "http://127.0.0.1:" + server.getAddress().getPort() + IMAGES; }
+    public long served() { return served.sum(); }
+    public long failed() { return failed.sum(); }
+
+    public static void main(String[] args) throws InterruptedException {
+        Stub stub = new Stub().port(args.length > 0 ? Integer.parseInt(args[0]) : 8080).start();
+        System.out.println("FakerAPI stub listening on " + stub.base());
+        Thread.currentThread().join();
+    }
+
+    // ===== HTTP =====
+
+    private interface Item { void write(JsonGenerator g, Gen gen, int id) throws IOException; }
+
+    private void handle(HttpExchange ex, Item item) throws IOException {
+        try (ex) {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            long delay = latencyMs + (jitterMs > 0 ? rnd.nextLong(jitterMs + 1) : 0);
+            if (delay > 0) Thread.sleep(delay);
+            if (throttleRate > 0 && rnd.nextDouble() < throttleRate) {
+                failed.increment();
+                ex.getResponseHeaders().set("Retry-After", Long.toString(retryAfterSeconds));
+                send(ex, 429, "{\"status\":\"ERROR\",\"code\":429,\"total\":0,\"data\":[]}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (errorRate > 0 && rnd.nextDouble() < errorRate) {
+                failed.increment();
+                send(ex, 500, "{\"status\":\"ERROR\",\"code\":500,\"total\":0,\"data\":[]}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            Map<String, String> q = query(ex.getRequestURI().getRawQuery());
+            send(ex, 200, encode(ex, body(ex.getHttpContext().getPath(), q, item)));
+            served.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // gzip preferred over deflate, like most servers; the header is set only when the body is encoded
+    private byte[] encode(HttpExchange ex, byte[] body) throws IOException {
+        String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept == null || compressAbove < 0 || body.length < compressAbove) return body;
+        String enc = accept.contains("gzip") ? "gzip" : accept.contains("deflate") ? "deflate" : null;
+        if (enc == null) return body;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream z = enc.equals("gzip") ? new GZIPOutputStream(out) : new DeflaterOutputStream(out)) { z.write(body); }
+        ex.getResponseHeaders().set("Content-Encoding", enc);
+        return out.toByteArray();
+    }
+
+    // ===== IMAGES =====
+
+    private static final String[] FORMATS = {"png", "jpeg", "gif", "webp"};
+    private static final Map<String, byte[]> pictures = new ConcurrentHashMap<>();
+
+    // Format follows a typed URL's extension, else rotates with ?image=N so clients see every header layout;
+    // bodies are cached per format and size
+    private void picture(HttpExchange ex) throws IOException {
+        try (ex) {
+            String[] parts = ex.getRequestURI().getPath().substring(IMAGES.length()).split("/");
+            int w = parts.length > 1 ? parseOr(parts[1], 0) : 0, h = parts.length > 2 ? parseOr(parts[2], w) : w;
+            if (w < 1 || h < 1 || w > 5000 || h > 5000) { ex.sendResponseHeaders(404, -1); return; }
+            String last = parts[parts.length - 1];
+            String fmt = parts.length > 4 && last.endsWith(".png") ? "png" : parts.length > 4 && last.endsWith(".jpg") ? "jpeg"
+                    : FORMATS[Math.floorMod(intParam(query(ex.getRequestURI().getRawQuery()), "image", 0), FORMATS.length)];
+            byte[] body = pictures.computeIfAbsent(fmt + "/" + w + "/" + h, k -> render(fmt, w, h));
+            ex.getResponseHeaders().set("Content-Type", "image/" + fmt);
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream out = ex.getResponseBody()) { out.write(body); }
+        }
+    }
+
+    private static byte[] render(String fmt, int w, int h) {
+        if (fmt.equals("webp")) return webp(w, h);
+        BufferedImage img = new BufferedImage(w, h, fmt.equals("gif") ? BufferedImage.TYPE_BYTE_INDEXED : BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < h; y += 8) for (int x = 0; x < w; x += 8) img.setRGB(x, y, (x * 31 + y * 17) * 0x010101);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try { if (!ImageIO.write(img, fmt, out)) throw new IOException("No ImageIO writer for " + fmt); }
+        catch (IOException e) { throw new UncheckedIOException(e); }
+        return out.toByteArray();
+    }
+
+    // ImageIO can't write WebP: a valid RIFF/VP8L header for w x h followed by filler, enough for header readers
+    private static byte[] webp(int w, int h) {
+        byte[] b = new byte[4096];
+        System.arraycopy("RIFF".getBytes(StandardCharsets.US_ASCII), 0, b, 0, 4);
+        le32(b, 4, b.length - 8);
+        System.arraycopy("WEBPVP8L".getBytes(StandardCharsets.US_ASCII), 0, b, 8, 8);
+        le32(b, 16, b.length - 20);
+        b[20] = 0x2F;
+        int bits = (w - 1) | (h - 1) << 14;
+        le32(b, 21, bits);
+        return b;
+    }
+
+    private static void le32(byte[] b, int at, int v) {
+        for (int i = 0; i < 4; i++) b[at + i] = (byte) (v >>> (8 * i));
+    }
+
+    private static int parseOr(String s, int fallback) {
+        try { return Integer.parseInt(s); } catch (NumberFormatException e) { return fallback; }
+    }
+
+    private static void send(HttpExchange ex, int status, byte[] body) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, body.length);
+        try (OutputStream out = ex.getResponseBody()) { out.write(body); }
+    }
+
+    private static byte[] body(String path, Map<String, String> q, Item item) throws IOException {
+        Gen gen = new Gen(path, q);
+        int qty = intParam(q, "_quantity", Api.DEFAULT_QTY);
+        if (qty < 1) qty = Api.DEFAULT_QTY;
+        qty = Math.min(qty, Api.MAX_QTY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + qty * 256);
+        try (JsonGenerator g = json.createGenerator(out)) {
+            g.writeStartObject();
+            g.writeStringField("status", "OK");
+            g.writeNumberField("code", 200);
+            g.writeStringField("locale", gen.locale);
+            if (q.containsKey("_seed")) g.writeStringField("seed", q.get("_seed")); else g.writeNullField("seed");
+            g.writeNumberField("total", qty);
+            g.writeArrayFieldStart("data");
+            for (int i = 1; i <= qty; i++) item.write(g, gen, i);
+            g.writeEndArray();
+            g.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> q = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return q;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String k = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            q.put(k, eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return q;
+    }
+
+    private static int intParam(Map<String, String> q, String k, int def) {
+        try { return q.containsKey(k) ? Integer.parseInt(q.get(k)) : def; }
+        catch (NumberFormatException e) { return def; }
+    }
+
+    private static double doubleParam(Map<String, String> q, String k, double def) {
+        try { return q.containsKey(k) ? Double.parseDouble(q.get(k)) : def; }
+        catch (NumberFormatException e) { return def; }
+    }
+
+    // ===== ENDPOINTS =====
+
+    private void product(JsonGenerator g, Gen gen, int id) throws IOException {
+        int taxes = gen.q.containsKey("_taxes") ? intParam(gen.q, "_taxes", 22) : gen.pick(TAXES);
+        double min = doubleParam(gen.q, "_price_min", 0), max = doubleParam(gen.q, "_price_max", 1000);
+        if (max < min) max = min;
+        double price = Math.round((min + gen.rnd.nextDouble() * (max - min)) * 100) / 100.0;
+        price = Math.min(max, Math.max(min, price));
+        g.writeStartObject();
+        g.writeNumberField("id", id);
+        g.writeStringField("name", gen.words(2));
+        g.writeStringField("description", gen.words(12));
+        g.writeStringField("ean", gen.barcode(13));
+        g.writeStringField("upc", gen.barcode(12));
+        g.writeStringField("image", gen.picture(640, 480));
+        g.writeArrayFieldStart("images");
+        for (int i = gen.rnd.nextInt(1, 4); i > 0; i--) writeImage(g, gen, 640, 480, null);
+        g.writeEndArray();
+        g.writeNumberField("net_price", Math.round(price / (1 + taxes / 100.0) * 100) / 100.0);
+        g.writeNumberField("taxes", taxes);
+        g.writeNumberField("price", price);
+        g.writeArrayFieldStart("categories");
+        String type = gen.q.getOrDefault("_categories_type", "integer");
+        for (int i = gen.rnd.nextInt(1, 4); i > 0; i--) {
+            switch (type) {
+                case "string" -> g.writeString(gen.word());
+                case "uuid" -> g.writeString(gen.uuid());
+                default -> g.writeNumber(gen.rnd.nextInt(1, 10));
+            }
+        }
+        g.writeEndArray();
+        g.writeArrayFieldStart("tags");
+        for (int i = gen.rnd.nextInt(1, 5); i > 0; i--) g.writeString(gen.word());
+        g.writeEndArray();
+        g.writeEndObject();
+    }
+
+    private void user(JsonGenerator g, Gen gen, int id) throws IOException {
+        String gender = gen.q.getOrDefault("_gender", gen.rnd.nextBoolean() ? "male" : "female");
+        String username = gen.word() + gen.rnd.nextInt(100, 1000);
+        g.writeStartObject();
+        g.writeNumberField("id", id);
+        g.writeStringField("uuid", gen.uuid());
+        g.writeStringField("firstname", gen.firstname(gender));
+        g.writeStringField("lastname", gen.lastname());
+        g.writeStringField("username", username);
+        g.writeStringField("password", gen.token(12));
+        g.writeStringField("email", username + "@" + gen.domain());
+        g.writeStringField("ip", gen.ip());
+        g.writeStringField("macAddress", gen.mac());
+        g.writeStringField("website", "http://" + gen.domain());
+        g.writeStringField("image", gen.picture(640, 480));
+        g.writeEndObject();
+    }
+
+    private void company(JsonGenerator g, Gen gen, int id) throws IOException {
+        String name = gen.lastname() + " " + gen.pick(COMPANY_SUFFIXES);
+        g.writeStartObject();
+        g.writeNumberField("id", id);
+        g.writeStringField("name", name);
+        g.writeStringField("email", gen.word() + "@" + gen.domain());
+        g.writeStringField("vat", gen.digits(11));
+        g.writeStringField("phone", gen.phone());
+        g.writeStringField("country", gen.country[0]);
+        g.writeArrayFieldStart("addresses");
+        for (int i = 1, n = gen.rnd.nextInt(1, 4); i <= n; i++) writeAddress(g, gen, i);
+        g.writeEndArray();
+        g.writeStringField("website", "http://" + gen.domain());
+        g.writeStringField("image", gen.picture(640, 480));
+        g.writeObjectFieldStart("contact");
+        String gender = gen.rnd.nextBoolean() ? "male" : "female";
+        String first = gen.firstname(gender);
+        g.writeNumberField("id", id);
+        g.writeStringField("firstname", first);
+        g.writeStringField("lastname", gen.lastname());
+        g.writeStringField("email", gen.word() + gen.rnd.nextInt(10, 100) + "@" + gen.domain());
+        g.writeStringField("phone", gen.phone());
+        g.writeStringField("birthday", String.format("%04d-%02d-%02d",
+                gen.rnd.nextInt(1950, 2006), gen.rnd.nextInt(1, 13), gen.rnd.nextInt(1, 29)));
+        g.writeStringField("gender", gender);
+        g.writeFieldName("address");
+        writeAddress(g, gen, id);
+        g.writeStringField("website", "http://" + gen.domain());
+        g.writeStringField("image", gen.picture(640, 480));
+        g.writeEndObject();
+        g.writeEndObject();
+    }
+
+    // _type picks the category and file extension of the URL; "any" and unknown types keep plain picsum URLs
+    private static final Map<String, String> IMAGE_TYPES = Map.ofEntries(Map.entry("pokemon", "png"),
+            Map.entry("animals", "jpg"), Map.entry("business", "jpg"), Map.entry("cats", "jpg"), Map.entry("city", "jpg"),
+            Map.entry("food", "jpg"), Map.entry("nightlife", "jpg"), Map.entry("fashion", "jpg"), Map.entry("people", "jpg"),
+            Map.entry("nature", "jpg"), Map.entry("sports", "jpg"), Map.entry("technics", "jpg"), Map.entry("transport", "jpg"));
+
+    private void image(JsonGenerator g, Gen gen, int id) throws IOException {
+        int w = intParam(gen.q, "_width", 640), h = intParam(gen.q, "_height", 480);
+        String type = gen.q.getOrDefault("_type", "any");
+        writeImage(g, gen, w > 0 ? w : 640, h > 0 ? h : 480, IMAGE_TYPES.containsKey(type) ? type : null);
+    }
+
+    private static void writeImage(JsonGenerator g, Gen gen, int w, int h, String type) throws IOException {
+        g.writeStartObject();
+        g.writeStringField("title", gen.words(3));
+        g.writeStringField("description", gen.words(10));
+        g.writeStringField("url", type == null ? gen.picture(w, h)
+                : "https://picsum.photos/" + w + "/" + h + "/" + type + "/" + gen.rnd.nextInt(1, 1000) + "." + IMAGE_TYPES.get(type));
+        g.writeEndObject();
+    }
+
+    private static void writeAddress(JsonGenerator g, Gen gen, int id) throws IOException {
+        String streetName = gen.lastname() + " " + gen.pick(STREET_SUFFIXES);
+        String building = String.valueOf(gen.rnd.nextInt(1, 1000));
+        g.writeStartObject();
+        g.writeNumberField("id", id);
+        g.writeStringField("street", building + " " + streetName);
+        g.writeStringField("streetName", streetName);
+        g.writeStringField("buildingNumber", building);
+        g.writeStringField("city", gen.pick(gen.cities));
+        g.writeStringField("zipcode", gen.digits(5));
+        g.writeStringField("country", gen.country[0]);
+        g.writeStringField("country_code", gen.country[1]);
+        g.writeNumberField("latitude", Math.round((gen.rnd.nextDouble() * 180 - 90) * 1e6) / 1e6);
+        g.writeNumberField("longitude", Math.round((gen.rnd.nextDouble() * 360 - 180) * 1e6) / 1e6);
+        g.writeEndObject();
+    }
+
+    // ===== DATA =====
+
+    private static final int[] TAXES = {5, 10, 12, 15, 22, 25};
+    private static final String[] WORDS = {"alpha", "amber", "aurora", "basil", "breeze", "cedar", "cobalt", "coral",
+            "delta", "ember", "falcon", "fjord", "garnet", "harbor", "indigo", "jasper", "kestrel", "lumen", "maple",
+            "meadow", "nimbus", "onyx", "orchid", "pepper", "quartz", "raven", "saffron", "sierra", "tundra", "velvet"};
+    private static final String[] DOMAINS = {"example.com", "example.org", "example.net", "test.dev", "mail.io"};
+    private static final String[] COMPANY_SUFFIXES = {"Ltd", "Inc", "Group", "GmbH", "Partners", "& Co"};
+    private static final String[] STREET_SUFFIXES = {"Street", "Avenue", "Road", "Lane", "Way"};
+    private static final Map<String, Names> LOCALES = Map.of(
+            "en_US", new Names(new String[]{"United States", "US"}, "1",
+                    new String[]{"James", "John", "Robert", "Michael"}, new String[]{"Mary", "Linda", "Susan", "Karen"},
+                    new String[]{"Smith", "Johnson", "Brown", "Miller"}, new String[]{"Boston", "Denver", "Austin"}),
+            "de_DE", new Names(new String[]{"Germany", "DE"}, "49",
+                    new String[]{"Lukas", "Felix", "Jonas", "Paul"}, new String[]{"Anna", "Lena", "Marie", "Sophie"},
+                    new String[]{"Müller", "Schmidt", "Schneider", "Fischer"}, new String[]{"Berlin", "München", "Köln"}),
+            "fr_FR", new Names(new String[]{"France", "FR"}, "33",
+                    new String[]{"Louis", "Hugo", "Jules", "Léo"}, new String[]{"Camille", "Chloé", "Léa", "Manon"},
+                    new String[]{"Martin", "Bernard", "Dubois", "Lefèvre"}, new String[]{"Paris", "Lyon", "Nantes"}),
+            "es_ES", new Names(new String[]{"Spain", "ES"}, "34",
+                    new String[]{"Hugo", "Mateo", "Martín", "Lucas"}, new String[]{"Lucía", "Sofía", "Martina", "María"},
+                    new String[]{"García", "Fernández", "López", "Martínez"}, new String[]{"Madrid", "Sevilla", "Valencia"}),
+            "it_IT", new Names(new String[]{"Italy", "IT"}, "39",
+                    new String[]{"Leonardo", "Francesco", "Alessandro", "Lorenzo"}, new String[]{"Sofia", "Giulia", "Aurora", "Alice"},
+                    new String[]{"Rossi", "Russo", "Ferrari", "Esposito"}, new String[]{"Roma", "Milano", "Torino"}),
+            "ja_JP", new Names(new String[]{"Japan", "JP"}, "81",
+                    new String[]{"翔太", "蓮", "大翔", "悠真"}, new String[]{"陽葵", "結菜", "さくら", "美咲"},
+                    new String[]{"佐藤", "鈴木", "高橋", "田中"}, new String[]{"東京", "大阪", "京都"}),
+            "pt_BR", new Names(new String[]{"Brazil", "BR"}, "55",
+                    new String[]{"Miguel", "Arthur", "Heitor", "Davi"}, new String[]{"Helena", "Alice", "Laura", "Valentina"},
+                    new String[]{"Silva", "Santos", "Oliveira", "Souza"}, new String[]{"São Paulo", "Recife", "Curitiba"}));
+
+    private record Names(String[] country, String dial, String[] male, String[] female, String[] last, String[] cities) { }
+
+    // Per-request generator: a seeded request always produces the same bytes
+    private static class Gen {
+        final Map<String, String> q;
+        final SplittableRandom rnd;
+        final String locale;
+        final String[] country, cities;
+        final Names names;
+
+        Gen(String path, Map<String, String> q) {
+            this.q = q;
+            this.locale = q.getOrDefault("_locale", "en_US");
+            this.names = LOCALES.getOrDefault(locale, LOCALES.get("en_US"));
+            this.country = names.country();
+            this.cities = names.cities();
+            this.rnd = q.containsKey("_seed")
+                    ? new SplittableRandom(new TreeMap<>(q).toString().hashCode() * 31L + path.hashCode())
+                    : new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        }
+
+        String pick(String[] a) { return a[rnd.nextInt(a.length)]; }
+        int pick(int[] a) { return a[rnd.nextInt(a.length)]; }
+        String word() { return pick(WORDS); }
+        String domain() { return pick(DOMAINS); }
+        String firstname(String gender) { return pick("female".equals(gender) ? names.female() : names.male()); }
+        String lastname() { return pick(names.last()); }
+        String picture(int w, int h) { return "https://picsum.photos/" + w + "/" + h + "?image=" + rnd.nextInt(1, 1000); }
+        String ip() { return rnd.nextInt(1, 256) + "." + rnd.nextInt(256) + "." + rnd.nextInt(256) + "." + rnd.nextInt(1, 255); }
+        String phone() { return "+" + names.dial() + digits(9); }
+
+        String words(int n) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < n; i++) sb.append(i == 0 ? "" : " ").append(word());
+            sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+            return sb.toString();
+        }
+
+        String digits(int n) {
+            char[] c = new char[n];
+            for (int i = 0; i < n; i++) c[i] = (char) ('0' + rnd.nextInt(10));
+            return new String(c);
+        }
+
+        String token(int n) {
+            String alphabet = "abcdefghijkmnopqrstuvwxyzABCDEFGHJKLMNPQRSTUVWXYZ23456789!#%";
+            char[] c = new char[n];
+            for (int i = 0; i < n; i++) c[i] = alphabet.charAt(rnd.nextInt(alphabet.length()));
+            return new String(c);
+        }
+
+        String mac() {
+            StringBuilder sb = new StringBuilder(17);
+            for (int i = 0; i < 6; i++) sb.append(i == 0 ? "" : ":").append(String.format("%02x", rnd.nextInt(256)));
+            return sb.toString();
+        }
+
+        String uuid() {
+            long hi = (rnd.nextLong() & ~0xF000L) | 0x4000L;
+            long lo = (rnd.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+            return new UUID(hi, lo).toString();
+        }
+
+        // EAN-13 (n=13) or UPC-A (n=12) with a valid check digit
+        String barcode(int n) {
+            char[] c = digits(n - 1).concat("0").toCharArray();
+            int sum = 0;
+            for (int i = n - 2, w = 3; i >= 0; i--, w = 4 - w) sum += (c[i] - '0') * w;
+            c[n - 1] = (char) ('0' + (10 - sum % 10) % 10);
+            return new String(c);
+        }
+    }
+}
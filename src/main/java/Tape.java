@@ -0,0 +1,112 @@
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class Tape {
+
+    public enum Mode { OFF, RECORD, REPLAY, REFRESH }
+
+    public static final Mode MODE = Mode.valueOf(System.getProperty("api.tape", "off").toUpperCase());
+    public static final Path DIR = Path.of(System.getProperty("api.tape.dir", ".tapes"));
+    public static final Duration MAX_AGE = Duration.parse(System.getProperty("api.tape.maxAge", "PT24H"));
+    // Kept with the body; the rest (dates, server, lengths) would only make replays differ from run to run
+    static final List<String> HEADERS = List.of("Content-Type", "Retry-After");
+
+    // Mapped once per file; replays copy straight out of the page cache
+    private static final Map<Path, ByteBuffer> mapped = new ConcurrentHashMap<>();
+
+    public static boolean isOn() { return MODE != Mode.OFF; }
+    public static boolean replaying() { return MODE == Mode.REPLAY || MODE == Mode.REFRESH; }
+
+    // Returns the taped response, or null when the caller should go to the network
+    public static Response replay(String endpoint, Map<String, Object> params) {
+        if (!replaying()) return null;
+        Path file = file(endpoint, params);
+        if (!Files.exists(file)) {
+            if (MODE == Mode.REPLAY) throw new AssertionError("No tape for " + Api.key(endpoint, params)
+                    + " in " + DIR + " (record it with -Dapi.tape=record)");
+            return null;
+        }
+        if (MODE == Mode.REFRESH && isStale(file)) return null;
+        ByteBuffer buf = mapped.computeIfAbsent(file, Tape::map).duplicate();
+        // "HTTP <status>", then "Name: value" lines, a blank line and the body; a bare body is an older 200 tape
+        int status = 200;
+        List<Header> headers = new ArrayList<>();
+        if (buf.remaining() > 5 && buf.get(0) == 'H') {
+            for (String line = line(buf); !line.isEmpty(); line = line(buf)) {
+                int colon = line.indexOf(':');
+                if (line.startsWith("HTTP ")) status = Integer.parseInt(line.substring(5).trim());
+                else if (colon > 0) headers.add(new Header(line.substring(0, colon), line.substring(colon + 1).trim()));
+            }
+        } else headers.add(new Header("Content-Type", "application/json"));
+        byte[] body = new byte[buf.remaining()];
+        buf.get(body);
+        ResponseBuilder rb = new ResponseBuilder().setStatusCode(status).setStatusLine("HTTP/1.1 " + status)
+                .setHeaders(new Headers(headers)).setBody(body);
+        for (Header h : headers) if (h.getName().equalsIgnoreCase("Content-Type")) rb.setContentType(h.getValue());
+        return rb.build();
+    }
+
+    private static String line(ByteBuffer buf) {
+        int start = buf.position();
+        while (buf.hasRemaining() && buf.get() != '\n') { }
+        int end = buf.position() - (buf.position() > start && buf.get(buf.position() - 1) == '\n' ? 1 : 0);
+        byte[] b = new byte[end - start];
+        buf.get(start, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    // Whatever the call finally got, error statuses included, so negative tests replay offline too
+    public static void record(String endpoint, Map<String, Object> params, Response res) {
+        if (MODE != Mode.RECORD && MODE != Mode.REFRESH) return;
+        Path file = file(endpoint, params);
+        StringBuilder head = new StringBuilder("HTTP ").append(res.statusCode()).append('\n');
+        for (String name : HEADERS) {
+            String v = res.getHeader(name);
+            if (v != null) head.append(name).append(": ").append(v).append('\n');
+        }
+        head.append('\n');
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "tape", ".tmp");
+            Files.write(tmp, head.toString().getBytes(StandardCharsets.UTF_8));
+            Files.write(tmp, res.asByteArray(), StandardOpenOption.APPEND);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            mapped.remove(file);
+        } catch (IOException e) { throw new UncheckedIOException("Cannot record tape: " + file, e); }
+    }
+
+    static Path file(String endpoint, Map<String, Object> params) {
+        String key = Api.key(endpoint, params);
+        int q = key.indexOf('?');
+        String name = q < 0 ? "default" : key.substring(q + 1).replaceAll("[^A-Za-z0-9_.=&-]", "_");
+        return DIR.resolve(endpoint.replace("/", "")).resolve(name + ".json");
+    }
+
+    private static boolean isStale(Path file) {
+        try { return Files.getLastModifiedTime(file).toInstant().isBefore(Instant.now().minus(MAX_AGE)); }
+        catch (IOException e) { return true; }
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        } catch (IOException e) { throw new UncheckedIOException("Cannot read tape: " + file, e); }
+    }
+}
@@ -0,0 +1,76 @@
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Per-endpoint token bucket that learns the server's limit: unlimited (or -Dapi.rate) until the first
+// 429/503, then the rate is halved on every push-back and creeps up again on each success (AIMD)
+public class Throttle {
+
+    public static final double INITIAL_RATE = Double.parseDouble(System.getProperty("api.rate", "0"));
+    public static final double MIN_RATE = Double.parseDouble(System.getProperty("api.rate.min", "1"));
+    public static final double INCREASE = Double.parseDouble(System.getProperty("api.rate.increase", "2"));
+    public static final int BURST = Integer.getInteger("api.rate.burst", 4);
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final Map<String, Throttle> byEndpoint = new ConcurrentHashMap<>();
+
+    private final String endpoint;
+    private double rate = INITIAL_RATE > 0 ? INITIAL_RATE : Double.POSITIVE_INFINITY;
+    private long next = System.nanoTime(), pausedUntil, lastCut;
+    // Sends in the current and previous one-second window, to estimate the rate that got us throttled
+    private long windowStart = System.nanoTime(), windowCount, lastWindowCount;
+
+    private Throttle(String endpoint) { this.endpoint = endpoint; }
+
+    public static Throttle of(String endpoint) { return byEndpoint.computeIfAbsent(endpoint, Throttle::new); }
+
+    // Current requests/second for the endpoint; infinite while the server hasn't pushed back
+    public static double rate(String endpoint) {
+        Throttle t = byEndpoint.get(endpoint);
+        return t == null ? Double.POSITIVE_INFINITY : t.rate();
+    }
+
+    public synchronized double rate() { return rate; }
+
+    // Blocks until the bucket has a token; the wait is exported to Metrics
+    public void acquire() {
+        long wait = reserve(System.nanoTime());
+        if (wait <= 0) return;
+        LockSupport.parkNanos(wait);
+        Metrics.throttled(endpoint, wait);
+    }
+
+    private synchronized long reserve(long now) {
+        if (now - windowStart >= SECOND) {
+            lastWindowCount = now - windowStart < 2 * SECOND ? windowCount : 0;
+            windowStart = now;
+            windowCount = 0;
+        }
+        windowCount++;
+        if (Double.isInfinite(rate)) return Math.max(0, pausedUntil - now);
+        long interval = (long) (SECOND / rate);
+        // Up to BURST tokens saved while idle: the slot may lie in the past, and those sends go out at once
+        long slot = Math.max(pausedUntil, Math.max(next, now - BURST * interval));
+        next = slot + interval;
+        return Math.max(0, slot - now);
+    }
+
+    // 429 or 503: cut the rate once per second of push-back and honor Retry-After for everyone
+    public synchronized void throttled(Duration retryAfter) {
+        long now = System.nanoTime();
+        if (retryAfter != null) pausedUntil = Math.max(pausedUntil, now + retryAfter.toNanos());
+        if (now - lastCut < SECOND && lastCut != 0) return;
+        lastCut = now;
+        if (Double.isInfinite(rate)) {
+            double observed = Math.max(lastWindowCount, windowCount * (double) SECOND / Math.max(1, now - windowStart));
+            rate = Math.max(MIN_RATE, observed / 2);
+        } else rate = Math.max(MIN_RATE, rate / 2);
+    }
+
+    // Additive increase: roughly +INCREASE requests/second for every second of clean responses
+    public synchronized void ok() {
+        if (!Double.isInfinite(rate)) rate += INCREASE / rate;
+    }
+}
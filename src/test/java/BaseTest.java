@@ -1,27 +1,110 @@
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
-import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 
+@Execution(ExecutionMode.CONCURRENT)
+@ExtendWith(RunReport.class)
+@ExtendWith(Scheduler.class)
+@ExtendWith(BaseTest.SkipOpenCircuit.class)
+@TestMethodOrder(Scheduler.class)
 public abstract class BaseTest {
 
-    protected static final String DATA = "src/test/resources/data/";
+    protected static final String DATA = Data.DIR;
     protected static final String SCHEMAS = "src/test/resources/schemas/";
 
-    protected static List<String> locales;
-    protected static List<Object> quantities;
-    protected static List<Object> seeds;
+    // Loaded once during class initialization, which the JVM already serializes across threads
+    protected static final List<String> locales = Data.locales();
+    protected static final int[] quantities = Data.validQty();
+    protected static final int[] seeds = Data.seeds();
 
-    @BeforeAll
-    static void loadData() {
-        locales = toStringList(Json.list(DATA + "common.json", "locales"));
-        quantities = Json.list(DATA + "common.json", "valid_qty");
-        seeds = Json.list(DATA + "common.json", "seeds");
+    protected static final int PAIRWISE_STRENGTH = Integer.getInteger("pairwise.strength", 2);
+    protected static final int PAIRWISE_IN_FLIGHT = Integer.getInteger("pairwise.maxInFlight", 8);
+
+    // Fires one request per value up front, so each parameterized case only waits on its own future
+    protected static <T> Stream<Arguments> prefetch(List<T> values, Function<T, Api.Request> request) {
+        List<CompletableFuture<Response>> pending = Api.sendAll(values.stream().map(request).toList());
+        return IntStream.range(0, values.size()).mapToObj(i -> Arguments.of(values.get(i), pending.get(i)));
+    }
+
+    protected static Stream<Arguments> prefetch(int[] values, IntFunction<Api.Request> request) {
+        List<CompletableFuture<Response>> pending = Api.sendAll(IntStream.of(values).mapToObj(request).toList());
+        return IntStream.range(0, values.length).mapToObj(i -> Arguments.of(values[i], pending.get(i)));
+    }
+
+    protected static Response await(CompletableFuture<Response> pending) {
+        try { return pending.join(); }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof Circuit.Open open) Assumptions.abort(open.getMessage());
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    // Parameters every endpoint accepts; classes add their own before calling pairwise()
+    protected static Pairwise.Factors commonFactors() {
+        return new Pairwise.Factors().add("_locale", locales).add("_quantity", quantities).add("_seed", seeds);
+    }
+
+    // One dynamic test per covering-array row, all sent through a bounded window up front
+    protected Stream<DynamicTest> pairwise(Pairwise.Factors factors) {
+        List<Api.Request> requests = Pairwise.requests(endpoint(), factors, PAIRWISE_STRENGTH);
+        List<CompletableFuture<Response>> pending = Api.sendAll(requests, PAIRWISE_IN_FLIGHT);
+        return IntStream.range(0, requests.size()).mapToObj(i -> DynamicTest.dynamicTest(requests.get(i).key(), () -> {
+            Response res = await(pending.get(i));
+            assertOk(res);
+            assertCount(res, ((Number) requests.get(i).param("_quantity")).intValue());
+            assertSchema(res);
+        }));
     }
 
-    @SuppressWarnings("unchecked")
-    protected static List<String> toStringList(List<Object> list) {
-        return (List<String>) (List<?>) list;
+    // Once the endpoint's circuit opens, its remaining tests are skipped instead of each waiting out a timeout
+    @BeforeEach
+    void circuitClosed() {
+        endpoints.putIfAbsent(getClass(), endpoint());
+        Circuit circuit = Circuit.of(endpoint());
+        Assumptions.assumeFalse(circuit.open(), circuit::reason);
+    }
+
+    // A call refused mid-test (the circuit opened while it ran) skips the test too
+    static class SkipOpenCircuit implements TestExecutionExceptionHandler {
+        @Override
+        public void handleTestExecutionException(ExtensionContext ctx, Throwable e) throws Throwable {
+            for (Throwable t = e; t != null; t = t.getCause()) if (t instanceof Circuit.Open) Assumptions.abort(t.getMessage());
+            throw e;
+        }
+    }
+
+    // Endpoint of each test class that ran a test, recorded from its instances for the static @AfterAll
+    private static final Map<Class<?>, String> endpoints = new ConcurrentHashMap<>();
+
+    // Class scope: shared responses live as long as the class that uses this endpoint
+    @AfterAll
+    static void forgetShared(TestInfo info) {
+        String endpoint = endpoints.remove(info.getTestClass().orElseThrow());
+        if (endpoint != null && "class".equalsIgnoreCase(Api.SHARE)) Api.forget(endpoint);
     }
 
     // MUST IMPLEMENT
@@ -32,7 +115,7 @@ public abstract class BaseTest {
     protected void assertOk(Response res) {
         assertNotNull(res);
         assertEquals(200, res.statusCode());
-        assertEquals("OK", res.jsonPath().getString("status"));
+        assertEquals("OK", Payload.of(res).text("status"));
     }
 
     protected void assertStructure(Response res) {
@@ -44,7 +127,20 @@ public abstract class BaseTest {
     }
 
     protected void assertCount(Response res, int expected) {
-        assertEquals(Math.min(expected, Api.MAX_QTY), res.jsonPath().getList("data").size());
+        assertEquals(Math.min(expected, Api.MAX_QTY), Payload.of(res).count());
+    }
+
+    protected void assertFields(JsonNode node, String... fields) {
+        for (String f : fields) assertTrue(node.hasNonNull(f), "Missing field: " + f);
+    }
+
+    // Streams stats.items items through the sample's accumulators; any statistical anomaly fails the test
+    protected void assertPopulation(Population.Sample sample) {
+        // A tape holds one draw per request key, so every request of the sample would replay the same items
+        Assumptions.assumeFalse(Tape.replaying(), "population checks need fresh draws, not replayed tapes");
+        Population.Report report = sample.run(Population.ITEMS);
+        assertEquals(Population.ITEMS, report.items(), report::toString);
+        assertTrue(report.anomalies().isEmpty(), () -> report.anomalies() + " in " + report);
     }
 
     // REQUESTS
@@ -55,20 +151,16 @@ public abstract class BaseTest {
         return res;
     }
 
-    protected Response fetch(int qty) {
-        return new Api.Request(endpoint()).qty(qty).send();
-    }
-
-    protected Response fetchLocale(String locale) {
-        Response res = new Api.Request(endpoint()).locale(locale).send();
-        assertOk(res);
-        return res;
-    }
+    static IntStream seedValues() { return IntStream.of(seeds); }
 
+    // Every locale x valid_qty combination for the seed, each sent twice concurrently and compared by digest
     protected void verifySeed(int seed) {
-        Response r1 = new Api.Request(endpoint()).seed(seed).qty(5).send();
-        Response r2 = new Api.Request(endpoint()).seed(seed).qty(5).send();
-        assertEquals(r1.asString(), r2.asString());
+        List<Api.Request> matrix = new ArrayList<>();
+        for (String locale : locales)
+            for (int qty : quantities)
+                matrix.add(new Api.Request(endpoint()).seed(seed).locale(locale).qty(qty));
+        List<String> diverging = Determinism.diverging(matrix);
+        assertTrue(diverging.isEmpty(), diverging.size() + " of " + matrix.size() + " seeded requests differ: " + diverging);
     }
 }
 
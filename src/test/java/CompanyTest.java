@@ -1,23 +1,26 @@
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @DisplayName("Companies API")
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class CompanyTest extends BaseTest {
 
     protected String endpoint() { return Api.COMPANIES; }
     protected String schema() { return SCHEMAS + "company-schema.json"; }
 
-    static Stream<String> locales() { return BaseTest.locales.stream(); }
-    static Stream<Integer> qtys() { return quantities.stream().map(o -> ((Number) o).intValue()); }
+    static Stream<Arguments> locales() { return prefetch(BaseTest.locales, l -> new Api.Request(Api.COMPANIES).locale(l)); }
+    static Stream<Arguments> qtys() { return prefetch(quantities, q -> new Api.Request(Api.COMPANIES).qty(q)); }
 
     @Test @Order(1)
     void defaultRequest() {
@@ -26,106 +29,80 @@ class CompanyTest extends BaseTest {
 
     @Test @Order(2)
     void schemaTest() {
-        Response res = new Api.Request(endpoint()).qty(3).send();
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
         assertOk(res);
         assertSchema(res);
     }
 
-    @ParameterizedTest @Order(3) @MethodSource("locales")
-    void localeTest(String locale) {
-        assertEquals(locale, fetchLocale(locale).jsonPath().getString("locale"));
+    @ParameterizedTest(name = "[{index}] {0}") @Order(3) @MethodSource("locales")
+    void localeTest(String locale, CompletableFuture<Response> pending) {
+        Response res = await(pending);
+        assertOk(res);
+        assertEquals(locale, Payload.of(res).text("locale"));
     }
 
-    @ParameterizedTest @Order(4) @MethodSource("qtys")
-    void quantityTest(int qty) {
-        Response res = fetch(qty);
+    @ParameterizedTest(name = "[{index}] {0}") @Order(4) @MethodSource("qtys")
+    void quantityTest(int qty, CompletableFuture<Response> pending) {
+        Response res = await(pending);
         assertOk(res);
         assertCount(res, qty);
     }
 
-    @Test @Order(5)
-    void seedTest() {
-        verifySeed(((Number) seeds.get(0)).intValue());
+    @ParameterizedTest(name = "[{index}] seed {0}") @Order(5) @MethodSource("seedValues")
+    void seedTest(int seed) {
+        verifySeed(seed);
     }
 
     @Test @Order(6)
     void fieldsTest() {
-        Response res = new Api.Request(endpoint()).qty(1).send();
+        Response res = new Api.Request(endpoint()).qty(1).shared().send();
         assertOk(res);
         
-        Map<String, Object> c = res.jsonPath().getMap("data[0]");
-        assertNotNull(c.get("id"));
-        assertNotNull(c.get("name"));
-        assertNotNull(c.get("email"));
-        assertNotNull(c.get("vat"));
-        assertNotNull(c.get("phone"));
-        assertNotNull(c.get("country"));
-        assertNotNull(c.get("addresses"));
-        assertNotNull(c.get("website"));
-        assertNotNull(c.get("image"));
-        assertNotNull(c.get("contact"));
+        assertFields(Payload.of(res).item(0),
+                "id", "name", "email", "vat", "phone", "country", "addresses", "website", "image", "contact");
     }
 
     @Test @Order(7)
     void addressesArrayTest() {
-        Response res = new Api.Request(endpoint()).qty(1).send();
+        Response res = new Api.Request(endpoint()).qty(1).shared().send();
         assertOk(res);
         
-        List<Map<String, Object>> addresses = res.jsonPath().getList("data[0].addresses");
+        JsonNode addresses = Payload.of(res).item(0).path("addresses");
         assertFalse(addresses.isEmpty());
-        
-        Map<String, Object> addr = addresses.get(0);
-        assertNotNull(addr.get("street"));
-        assertNotNull(addr.get("city"));
-        assertNotNull(addr.get("country"));
-        assertNotNull(addr.get("country_code"));
-        assertNotNull(addr.get("latitude"));
-        assertNotNull(addr.get("longitude"));
+        assertFields(addresses.get(0), "street", "city", "country", "country_code", "latitude", "longitude");
     }
 
     @Test @Order(8)
     void contactObjectTest() {
-        Response res = new Api.Request(endpoint()).qty(1).send();
+        Response res = new Api.Request(endpoint()).qty(1).shared().send();
         assertOk(res);
         
-        Map<String, Object> contact = res.jsonPath().getMap("data[0].contact");
-        assertNotNull(contact.get("id"));
-        assertNotNull(contact.get("firstname"));
-        assertNotNull(contact.get("lastname"));
-        assertNotNull(contact.get("email"));
-        assertNotNull(contact.get("phone"));
-        assertNotNull(contact.get("gender"));
+        JsonNode contact = Payload.of(res).item(0).path("contact");
+        assertFields(contact, "id", "firstname", "lastname", "email", "phone", "gender");
     }
 
     @Test @Order(9)
     void emailFormatTest() {
-        Response res = new Api.Request(endpoint()).qty(3).send();
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
         assertOk(res);
         
-        for (Map<String, Object> c : res.jsonPath().<Map<String, Object>>getList("data")) {
-            assertThat((String) c.get("email"), containsString("@"));
-        }
+        assertEquals(3, Items.field(res, "email", email -> assertTrue(Formats.email(email), "Not an email: " + email)));
     }
 
     @Test @Order(10)
     void phoneFormatTest() {
-        Response res = new Api.Request(endpoint()).qty(3).send();
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
         assertOk(res);
         
-        for (Map<String, Object> c : res.jsonPath().<Map<String, Object>>getList("data")) {
-            String phone = (String) c.get("phone");
-            assertThat(phone, startsWith("+"));
-        }
+        assertEquals(3, Items.field(res, "phone", phone -> assertTrue(Formats.phone(phone), "Not a +<country> phone number: " + phone)));
     }
 
     @Test @Order(11)
     void websiteFormatTest() {
-        Response res = new Api.Request(endpoint()).qty(3).send();
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
         assertOk(res);
         
-        for (Map<String, Object> c : res.jsonPath().<Map<String, Object>>getList("data")) {
-            assertThat((String) c.get("website"), startsWith("http"));
-        }
+        assertEquals(3, Items.field(res, "website", site -> assertTrue(Formats.url(site), "Not an http(s) URL: " + site)));
     }
 
     @Test @Order(12)
@@ -135,5 +112,23 @@ class CompanyTest extends BaseTest {
         assertCount(res, 5);
         assertSchema(res);
     }
-}
 
+    @Test @Order(13) @Tag("bulk")
+    void bulkExportCsvTest() throws Exception {
+        Path file = Path.of("target", "export", "companies.csv");
+        Export.Result res = new Export.Job(endpoint()).total(1500).seed(4242).to(file).resume(false).run();
+        assertEquals(1500, res.records());
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1501, lines.size());
+        assertThat(lines.get(0), startsWith("id,name,email,vat,phone,country"));
+        assertThat(lines.get(1), startsWith("1,"));
+        assertThat(lines.get(1500), startsWith("1500,"));
+    }
+
+    @Test @Order(14) @Tag("bulk")
+    @DisplayName("Contact genders are male/female, half and half")
+    void genderRatioTest() {
+        assertPopulation(Population.sample(endpoint()).on("contact.gender", new Population.Categories(Data.genders()).balanced()));
+    }
+}
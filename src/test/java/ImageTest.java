@@ -1,44 +1,40 @@
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @DisplayName("Images API")
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class ImageTest extends BaseTest {
 
-    private static List<String> validTypes;
-    private static List<Object> validWidths;
-    private static List<Object> validHeights;
-    private static List<Object> invalidWidths;
-    private static List<Object> invalidHeights;
+    private static final List<String> validTypes = Data.imageTypes();
+    private static final int[] validWidths = Data.validWidths();
+    private static final int[] validHeights = Data.validHeights();
+    private static final int[] invalidWidths = Data.invalidWidths();
+    private static final int[] invalidHeights = Data.invalidHeights();
 
     protected String endpoint() { return Api.IMAGES; }
     protected String schema() { return SCHEMAS + "image-schema.json"; }
 
-    @BeforeAll
-    static void setup() {
-        validTypes = toStringList(Json.list(DATA + "images.json", "valid_types"));
-        validWidths = Json.list(DATA + "images.json", "valid_widths");
-        validHeights = Json.list(DATA + "images.json", "valid_heights");
-        invalidWidths = Json.list(DATA + "images.json", "invalid_widths");
-        invalidHeights = Json.list(DATA + "images.json", "invalid_heights");
-    }
-
-    static Stream<String> locales() { return BaseTest.locales.stream(); }
-    static Stream<Integer> qtys() { return quantities.stream().map(o -> ((Number) o).intValue()); }
+    static Stream<Arguments> locales() { return prefetch(BaseTest.locales, l -> new Api.Request(Api.IMAGES).locale(l)); }
+    static Stream<Arguments> qtys() { return prefetch(quantities, q -> new Api.Request(Api.IMAGES).qty(q)); }
     static Stream<String> types() { return validTypes.stream(); }
-    static Stream<Integer> widths() { return validWidths.stream().map(o -> ((Number) o).intValue()); }
-    static Stream<Integer> heights() { return validHeights.stream().map(o -> ((Number) o).intValue()); }
-    static Stream<Integer> badWidths() { return invalidWidths.stream().map(o -> ((Number) o).intValue()); }
-    static Stream<Integer> badHeights() { return invalidHeights.stream().map(o -> ((Number) o).intValue()); }
+    static Stream<Arguments> widths() { return prefetch(validWidths, w -> new Api.Request(Api.IMAGES).qty(1).param("_width", w)); }
+    static Stream<Arguments> heights() { return prefetch(validHeights, h -> new Api.Request(Api.IMAGES).qty(1).param("_height", h)); }
+    static Stream<Arguments> sizes() {
+        return IntStream.range(0, Math.min(validWidths.length, validHeights.length)).mapToObj(i -> Arguments.of(validWidths[i], validHeights[i]));
+    }
+    static IntStream badWidths() { return IntStream.of(invalidWidths); }
+    static IntStream badHeights() { return IntStream.of(invalidHeights); }
 
     // ===== POSITIVE TESTS =====
 
@@ -54,21 +50,23 @@ class ImageTest extends BaseTest {
         assertSchema(res);
     }
 
-    @ParameterizedTest @Order(3) @MethodSource("locales")
-    void localeTest(String locale) {
-        assertEquals(locale, fetchLocale(locale).jsonPath().getString("locale"));
+    @ParameterizedTest(name = "[{index}] {0}") @Order(3) @MethodSource("locales")
+    void localeTest(String locale, CompletableFuture<Response> pending) {
+        Response res = await(pending);
+        assertOk(res);
+        assertEquals(locale, Payload.of(res).text("locale"));
     }
 
-    @ParameterizedTest @Order(4) @MethodSource("qtys")
-    void quantityTest(int qty) {
-        Response res = fetch(qty);
+    @ParameterizedTest(name = "[{index}] {0}") @Order(4) @MethodSource("qtys")
+    void quantityTest(int qty, CompletableFuture<Response> pending) {
+        Response res = await(pending);
         assertOk(res);
         assertCount(res, qty);
     }
 
-    @Test @Order(5)
-    void seedTest() {
-        verifySeed(((Number) seeds.get(0)).intValue());
+    @ParameterizedTest(name = "[{index}] seed {0}") @Order(5) @MethodSource("seedValues")
+    void seedTest(int seed) {
+        verifySeed(seed);
     }
 
     @Test @Order(6)
@@ -76,10 +74,7 @@ class ImageTest extends BaseTest {
         Response res = new Api.Request(endpoint()).qty(1).send();
         assertOk(res);
         
-        Map<String, Object> img = res.jsonPath().getMap("data[0]");
-        assertNotNull(img.get("title"));
-        assertNotNull(img.get("description"));
-        assertNotNull(img.get("url"));
+        assertFields(Payload.of(res).item(0), "title", "description", "url");
     }
 
     @ParameterizedTest @Order(7) @MethodSource("types")
@@ -89,21 +84,21 @@ class ImageTest extends BaseTest {
         assertCount(res, 2);
     }
 
-    @ParameterizedTest @Order(8) @MethodSource("widths")
-    void widthParameterTest(int width) {
-        Response res = new Api.Request(endpoint()).qty(1).param("_width", width).send();
+    @ParameterizedTest(name = "[{index}] {0}") @Order(8) @MethodSource("widths")
+    void widthParameterTest(int width, CompletableFuture<Response> pending) {
+        Response res = await(pending);
         assertOk(res);
         
-        String url = res.jsonPath().getString("data[0].url");
+        String url = Payload.of(res).item(0).path("url").asText();
         assertThat(url, containsString(String.valueOf(width)));
     }
 
-    @ParameterizedTest @Order(9) @MethodSource("heights")
-    void heightParameterTest(int height) {
-        Response res = new Api.Request(endpoint()).qty(1).param("_height", height).send();
+    @ParameterizedTest(name = "[{index}] {0}") @Order(9) @MethodSource("heights")
+    void heightParameterTest(int height, CompletableFuture<Response> pending) {
+        Response res = await(pending);
         assertOk(res);
         
-        String url = res.jsonPath().getString("data[0].url");
+        String url = Payload.of(res).item(0).path("url").asText();
         assertThat(url, containsString(String.valueOf(height)));
     }
 
@@ -112,7 +107,7 @@ class ImageTest extends BaseTest {
         Response res = new Api.Request(endpoint()).qty(1).param("_width", 500).param("_height", 300).send();
         assertOk(res);
         
-        String url = res.jsonPath().getString("data[0].url");
+        String url = Payload.of(res).item(0).path("url").asText();
         assertThat(url, containsString("500"));
         assertThat(url, containsString("300"));
     }
@@ -122,9 +117,10 @@ class ImageTest extends BaseTest {
         Response res = new Api.Request(endpoint()).qty(3).send();
         assertOk(res);
         
-        for (Map<String, Object> img : res.jsonPath().<Map<String, Object>>getList("data")) {
-            assertThat((String) img.get("url"), startsWith("https://"));
-        }
+        assertEquals(3, Items.field(res, "url", url -> {
+            assertThat(url, startsWith("https://"));
+            assertTrue(Formats.url(url), "Not a URL: " + url);
+        }));
     }
 
     @Test @Order(12)
@@ -204,5 +200,29 @@ class ImageTest extends BaseTest {
         assertNotNull(res);
         System.out.println("Height=999999 → Status: " + res.statusCode());
     }
-}
 
+    // ===== COMBINATORIAL =====
+
+    @TestFactory @Order(20)
+    @DisplayName("Pairwise: locale x qty x seed x type x width x height")
+    Stream<DynamicTest> pairwiseTest() {
+        return pairwise(commonFactors().add("_type", validTypes).add("_width", validWidths).add("_height", validHeights));
+    }
+
+    // ===== IMAGE CONTENT =====
+
+    @ParameterizedTest(name = "[{index}] {0}x{1}") @Order(21) @MethodSource("sizes") @Tag("bulk")
+    @DisplayName("Image at each url has the requested width and height")
+    void imageDimensionTest(int width, int height) {
+        Response res = new Api.Request(endpoint()).qty(5).param("_width", width).param("_height", height).send();
+        assertOk(res);
+
+        List<String> urls = new ArrayList<>();
+        Items.field(res, "url", urls::add);
+        for (Images.Probe probe : Images.probeAll(urls)) {
+            assertTrue(probe.ok(), probe.toString());
+            assertEquals(width, probe.size().width(), probe.toString());
+            assertEquals(height, probe.size().height(), probe.toString());
+        }
+    }
+}
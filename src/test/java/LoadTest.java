@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Excluded from the normal run; mvn -Pload verify drives it against the in-process Stub
+@Tag("load")
+@DisplayName("Load")
+class LoadTest {
+
+    private static final double RPS = Double.parseDouble(System.getProperty("load.rps", "100"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+    // e.g. -Dload.mix=users=40,products=30,companies=20,images=10
+    private static final String MIX = System.getProperty("load.mix", "users=40,products=30,companies=20,images=10");
+
+    private final UserTest users = new UserTest();
+    private final ProductTest products = new ProductTest();
+    private final CompanyTest companies = new CompanyTest();
+    private final ImageTest images = new ImageTest();
+
+    // The same requests and checks the functional suite uses
+    private Map<String, Load.Scenario> scenarios(Map<String, Double> weights) {
+        Map<String, Load.Scenario> all = new HashMap<>();
+        all.put("users", new Load.Scenario("/users qty 100", weights.getOrDefault("users", 0.0),
+                () -> new Api.Request(Api.USERS).qty(100),
+                res -> { users.assertOk(res); users.assertCount(res, 100); }));
+        all.put("products", new Load.Scenario("/products price 50-500", weights.getOrDefault("products", 0.0),
+                () -> new Api.Request(Api.PRODUCTS).qty(5).param("_price_min", 50).param("_price_max", 500),
+                res -> { products.assertOk(res); products.assertCount(res, 5); }));
+        all.put("companies", new Load.Scenario("/companies qty 10", weights.getOrDefault("companies", 0.0),
+                () -> new Api.Request(Api.COMPANIES).qty(10),
+                res -> { companies.assertOk(res); companies.assertStructure(res); }));
+        all.put("images", new Load.Scenario("/images 640x480", weights.getOrDefault("images", 0.0),
+                () -> new Api.Request(Api.IMAGES).qty(1).param("_width", 640).param("_height", 480),
+                res -> { images.assertOk(res); images.assertCount(res, 1); }));
+        return all;
+    }
+
+    @Test
+    void mixedLoad() {
+        Map<String, Double> weights = new HashMap<>();
+        for (String part : MIX.split(",")) {
+            String[] kv = part.trim().split("=");
+            weights.put(kv[0], Double.parseDouble(kv[1]));
+        }
+        List<Load.Scenario> mix = new ArrayList<>();
+        scenarios(weights).forEach((name, s) -> { if (weights.containsKey(name)) mix.add(s); });
+        assertFalse(mix.isEmpty(), "No known scenario in load.mix: " + MIX);
+
+        Load.Result result = Load.run(mix, RPS, DURATION);
+        System.out.println("[load] " + result);
+        assertTrue(result.errorRate() <= MAX_ERROR_RATE,
+                String.format("Error rate %.2f%% above %.2f%%", 100 * result.errorRate(), 100 * MAX_ERROR_RATE));
+    }
+}
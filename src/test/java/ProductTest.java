@@ -1,32 +1,29 @@
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Products API")
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class ProductTest extends BaseTest {
 
-    private static List<Object> taxes;
-    private static List<String> categoryTypes;
+    private static final int[] taxes = Data.validTaxes();
+    private static final List<String> categoryTypes = Data.categoryTypes();
 
     protected String endpoint() { return Api.PRODUCTS; }
     protected String schema() { return SCHEMAS + "product-schema.json"; }
 
-    @BeforeAll
-    static void setup() {
-        taxes = Json.list(DATA + "products.json", "valid_taxes");
-        categoryTypes = toStringList(Json.list(DATA + "products.json", "category_types"));
-    }
-
-    static Stream<String> locales() { return BaseTest.locales.stream(); }
-    static Stream<Integer> qtys() { return quantities.stream().map(o -> ((Number) o).intValue()); }
-    static Stream<Integer> taxValues() { return taxes.stream().map(o -> ((Number) o).intValue()); }
+    static Stream<Arguments> locales() { return prefetch(BaseTest.locales, l -> new Api.Request(Api.PRODUCTS).locale(l)); }
+    static Stream<Arguments> qtys() { return prefetch(quantities, q -> new Api.Request(Api.PRODUCTS).qty(q)); }
+    static IntStream taxValues() { return IntStream.of(taxes); }
     static Stream<String> catTypes() { return categoryTypes.stream(); }
+    static Stream<Data.PriceRange> priceRanges() { return Data.priceRanges().stream(); }
 
     @Test @Order(1)
     void defaultRequest() {
@@ -40,46 +37,48 @@ class ProductTest extends BaseTest {
         assertSchema(res);
     }
 
-    @ParameterizedTest @Order(3) @MethodSource("locales")
-    void localeTest(String locale) {
-        assertEquals(locale, fetchLocale(locale).jsonPath().getString("locale"));
+    @ParameterizedTest(name = "[{index}] {0}") @Order(3) @MethodSource("locales")
+    void localeTest(String locale, CompletableFuture<Response> pending) {
+        Response res = await(pending);
+        assertOk(res);
+        assertEquals(locale, Payload.of(res).text("locale"));
     }
 
-    @ParameterizedTest @Order(4) @MethodSource("qtys")
-    void quantityTest(int qty) {
-        Response res = fetch(qty);
+    @ParameterizedTest(name = "[{index}] {0}") @Order(4) @MethodSource("qtys")
+    void quantityTest(int qty, CompletableFuture<Response> pending) {
+        Response res = await(pending);
         assertOk(res);
         assertCount(res, qty);
     }
 
-    @Test @Order(5)
-    void seedTest() {
-        verifySeed(((Number) seeds.get(0)).intValue());
+    @ParameterizedTest(name = "[{index}] seed {0}") @Order(5) @MethodSource("seedValues")
+    void seedTest(int seed) {
+        verifySeed(seed);
     }
 
     @ParameterizedTest @Order(6) @MethodSource("taxValues")
     void taxTest(int tax) {
         Response res = new Api.Request(endpoint()).qty(2).param("_taxes", tax).send();
         assertOk(res);
-        assertEquals(tax, res.jsonPath().getInt("data[0].taxes"));
+        assertEquals(tax, Payload.of(res).item(0).path("taxes").asInt());
     }
 
     @ParameterizedTest @Order(7) @MethodSource("catTypes")
     void categoryTypeTest(String type) {
         Response res = new Api.Request(endpoint()).qty(2).param("_categories_type", type).send();
         assertOk(res);
-        List<?> cats = res.jsonPath().getList("data[0].categories");
+        JsonNode cats = Payload.of(res).item(0).path("categories");
         assertFalse(cats.isEmpty());
-        Object first = cats.get(0);
+        JsonNode first = cats.get(0);
         switch (type) {
-            case "integer" -> assertTrue(first instanceof Number);
-            case "string", "uuid" -> assertTrue(first instanceof String);
+            case "integer" -> assertTrue(first.isNumber());
+            case "string", "uuid" -> assertTrue(first.isTextual());
         }
     }
 
-    @Test @Order(8)
-    void priceRangeTest() {
-        Response res = new Api.Request(endpoint()).qty(5).param("_price_min", 50).param("_price_max", 500).send();
+    @ParameterizedTest @Order(8) @MethodSource("priceRanges")
+    void priceRangeTest(Data.PriceRange range) {
+        Response res = new Api.Request(endpoint()).qty(5).param("_price_min", range.min()).param("_price_max", range.max()).send();
         assertOk(res);
     }
 
@@ -87,11 +86,7 @@ class ProductTest extends BaseTest {
     void fieldsTest() {
         Response res = new Api.Request(endpoint()).qty(1).send();
         assertOk(res);
-        Map<String, Object> p = res.jsonPath().getMap("data[0]");
-        assertNotNull(p.get("id"));
-        assertNotNull(p.get("name"));
-        assertNotNull(p.get("price"));
-        assertNotNull(p.get("categories"));
+        assertFields(Payload.of(res).item(0), "id", "name", "price", "categories");
     }
 
     @Test @Order(10)
@@ -102,5 +97,33 @@ class ProductTest extends BaseTest {
         assertCount(res, 10);
         assertSchema(res);
     }
-}
 
+    @TestFactory @Order(11)
+    @DisplayName("Pairwise: locale x qty x seed x taxes x category type x price range")
+    Stream<DynamicTest> pairwiseTest() {
+        return pairwise(commonFactors().add("_taxes", taxes).add("_categories_type", categoryTypes)
+                .add("_price_min", Data.validPriceMin()).add("_price_max", Data.validPriceMax()));
+    }
+
+    // ===== POPULATION =====
+
+    @ParameterizedTest @Order(12) @MethodSource("priceRanges") @Tag("bulk")
+    @DisplayName("Prices are uniform over [_price_min, _price_max]")
+    void priceDistributionTest(Data.PriceRange range) {
+        assertPopulation(Population.sample(endpoint()).param("_price_min", range.min()).param("_price_max", range.max())
+                .on("price", new Population.Numeric().uniform(range.min(), range.max())));
+    }
+
+    @ParameterizedTest @Order(13) @MethodSource("taxValues") @Tag("bulk")
+    @DisplayName("Every product carries the requested _taxes")
+    void taxDistributionTest(int tax) {
+        assertPopulation(Population.sample(endpoint()).param("_taxes", tax).on("taxes", new Population.IntCounts(100).only(tax)));
+    }
+
+    @Test @Order(14) @Tag("bulk")
+    @DisplayName("Every ean/upc has a valid GS1 check digit")
+    void barcodeTest() {
+        assertPopulation(Population.sample(endpoint())
+                .on("ean", new Population.Matches(Formats.Kind.EAN13)).on("upc", new Population.Matches(Formats.Kind.UPCA)));
+    }
+}
@@ -0,0 +1,42 @@
+import java.nio.file.Path;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+// Registered on BaseTest; the root store closes it once, after the last test class finishes
+public class RunReport implements BeforeAllCallback, ExtensionContext.Store.CloseableResource {
+
+    @Override
+    public void beforeAll(ExtensionContext ctx) {
+        ctx.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(RunReport.class, k -> new RunReport(), RunReport.class);
+    }
+
+    static final Path DIR = Path.of(System.getProperty("perf.report.dir", "target"));
+
+    @Override
+    public void close() {
+        System.out.println("[pool] " + Pool.stats());
+        if (Retry.retries() > 0) System.out.println("[retry] " + Retry.retries() + " retries");
+        Metrics.endpoints().forEach((endpoint, s) -> {
+            if (s.rejected() > 0 || !Double.isInfinite(Throttle.rate(endpoint)))
+                System.out.printf("[throttle] %-10s %d rejected, %dms waiting, now %.1f rps%n",
+                        endpoint, s.rejected(), s.throttledMillis(), Throttle.rate(endpoint));
+        });
+        Metrics.endpoints().forEach((endpoint, s) -> {
+            if (s.decodedBytes() > 0)
+                System.out.printf("[bytes] %-10s %d on the wire, %d decoded (%.1f%% saved, %d compressed responses)%n",
+                        endpoint, s.wireBytes(), s.decodedBytes(), s.savedPercent(), s.compressed());
+        });
+        Circuit.tripped().values().forEach(c -> System.out.println("[breaker] " + c));
+        System.out.println("[share] " + Api.coalesced() + " calls answered by an identical request (api.share=" + Api.SHARE + ")");
+        System.out.println("[schema] " + Schemas.size() + " compiled, " + Schemas.misses() + " compiles, " + Schemas.hits() + " cache hits");
+        Metrics.writeReport(DIR);
+        if (Drift.ON) Drift.report(DIR).forEach(System.out::println);
+        Metrics.endpoints().forEach((endpoint, s) -> {
+            var total = s.phase("total");
+            System.out.printf("[perf] %-10s n=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n", endpoint, s.count(),
+                    total.getValueAtPercentile(50) / 1000.0, total.getValueAtPercentile(95) / 1000.0,
+                    total.getValueAtPercentile(99) / 1000.0, total.getMaxValue() / 1000.0);
+        });
+    }
+}
@@ -0,0 +1,166 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.opentest4j.TestAbortedException;
+
+// Orders test classes and methods from the timings of earlier runs (.schedule/timings.properties): whatever failed
+// last time goes first, then tests with no history, then the rest longest first, so the slow tail starts early and
+// the fork-join workers finish together. Ties, and a first run with no history, keep @Order order.
+// Also records the timings: registered on BaseTest, written once by the root store like RunReport.
+public class Scheduler implements ClassOrderer, MethodOrderer, BeforeAllCallback, BeforeEachCallback, AfterEachCallback,
+        ExtensionContext.Store.CloseableResource {
+
+    static final boolean ON = !"off".equalsIgnoreCase(System.getProperty("schedule", "on"));
+    static final Path HISTORY = Path.of(System.getProperty("schedule.history", ".schedule/timings.properties"));
+    private static final String FAILED = " failed";
+    private static final ExtensionContext.Namespace NS = ExtensionContext.Namespace.create(Scheduler.class);
+
+    private record Timing(double millis, boolean failed) { }
+
+    private static final Map<String, Timing> history = load();
+    // This run: per method (all invocations summed) and per invocation ("Class.method[3]")
+    private static final Map<String, Double> millis = new ConcurrentHashMap<>();
+    private static final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    private final long started = System.nanoTime();
+    private volatile String workers = "?";
+
+    // ===== ORDERING =====
+
+    @Override
+    public void orderClasses(ClassOrdererContext ctx) {
+        if (ON) ctx.getClassDescriptors().sort(by(d -> classTiming(d.getTestClass()), d -> Order.DEFAULT));
+    }
+
+    @Override
+    public void orderMethods(MethodOrdererContext ctx) {
+        String cls = ctx.getTestClass().getName();
+        Function<MethodDescriptor, Integer> order = d -> d.findAnnotation(Order.class).map(Order::value).orElse(Order.DEFAULT);
+        ctx.getMethodDescriptors().sort(by(d -> ON ? history.get(cls + "." + d.getMethod().getName()) : null, order));
+    }
+
+    // Methods keep whatever @Execution says; the interface default would force SAME_THREAD
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() { return Optional.empty(); }
+
+    // failed, then unknown, then longest first; then @Order
+    private static <T> Comparator<T> by(Function<T, Timing> timing, Function<T, Integer> order) {
+        return Comparator.<T>comparingInt(d -> { Timing t = timing.apply(d); return t == null ? 1 : t.failed() ? 0 : 2; })
+                .thenComparingDouble(d -> { Timing t = timing.apply(d); return t == null ? 0 : -t.millis(); })
+                .thenComparing(order::apply);
+    }
+
+    // Sum of the class's methods; a class failed if any of them did
+    private static Timing classTiming(Class<?> cls) {
+        String prefix = cls.getName() + ".";
+        double total = 0;
+        boolean any = false, fail = false;
+        for (var e : history.entrySet()) {
+            String key = e.getKey();
+            if (!key.startsWith(prefix) || key.endsWith("]")) continue;
+            any = true;
+            total += e.getValue().millis();
+            fail |= e.getValue().failed();
+        }
+        return any ? new Timing(total, fail) : null;
+    }
+
+    // ===== RECORDING =====
+
+    @Override
+    public void beforeAll(ExtensionContext ctx) {
+        Scheduler s = ctx.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(Scheduler.class, k -> new Scheduler(), Scheduler.class);
+        s.workers = ctx.getConfigurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism").orElse("?");
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext ctx) { ctx.getStore(NS).put("start", System.nanoTime()); }
+
+    @Override
+    public void afterEach(ExtensionContext ctx) {
+        Long start = ctx.getStore(NS).remove("start", Long.class);
+        if (start == null) return;
+        double ms = (System.nanoTime() - start) / 1e6;
+        String key = ctx.getRequiredTestClass().getName() + "." + ctx.getRequiredTestMethod().getName();
+        boolean fail = ctx.getExecutionException().filter(e -> !(e instanceof TestAbortedException)).isPresent();
+        millis.merge(key, ms, Double::sum);
+        if (fail) failed.add(key);
+        String id = ctx.getUniqueId();
+        int at = id.lastIndexOf("[test-template-invocation:#");
+        if (at >= 0) {
+            String invocation = key + "[" + id.substring(at + 27, id.length() - 1) + "]";
+            millis.put(invocation, ms);
+            if (fail) failed.add(invocation);
+        }
+    }
+
+    // Averages this run into the history (tests that didn't run keep theirs) and reports the run against its
+    // critical path, the longest single test: wall time near it means the schedule left nothing on the table
+    @Override
+    public void close() {
+        if (millis.isEmpty()) return;
+        Map<String, Timing> next = new TreeMap<>(history);
+        millis.forEach((key, ms) -> {
+            Timing prev = history.get(key);
+            next.put(key, new Timing(prev == null ? ms : (prev.millis() + ms) / 2, failed.contains(key)));
+        });
+        List<String> lines = new ArrayList<>();
+        lines.add("# per-test milliseconds, averaged over runs; written by Scheduler");
+        next.forEach((key, t) -> lines.add(key + "=" + String.format("%.1f", t.millis()) + (t.failed() ? FAILED : "")));
+        try {
+            if (HISTORY.toAbsolutePath().getParent() != null) Files.createDirectories(HISTORY.toAbsolutePath().getParent());
+            Files.write(HISTORY, lines);
+        } catch (IOException e) { throw new UncheckedIOException("Cannot write test timings to " + HISTORY, e); }
+
+        // Leaves only: a parameterized method's invocations run concurrently, so its sum is not one unit of work.
+        // Tests mostly wait on responses, so the summed time can exceed wall time x workers.
+        double work = 0;
+        Map.Entry<String, Double> longest = null;
+        for (var e : millis.entrySet()) {
+            if (!e.getKey().endsWith("]") && millis.containsKey(e.getKey() + "[1]")) continue;
+            work += e.getValue();
+            if (longest == null || e.getValue() > longest.getValue()) longest = e;
+        }
+        System.out.printf("[schedule] %.1fs wall on %s workers, %.1fs summed test time, longest %s %.1fs (%d failed, history %s)%n",
+                (System.nanoTime() - started) / 1e9, workers, work / 1000, longest.getKey(), longest.getValue() / 1000,
+                failed.stream().filter(k -> !k.endsWith("]")).count(), ON ? HISTORY : "off");
+    }
+
+    private static Map<String, Timing> load() {
+        Map<String, Timing> out = new ConcurrentHashMap<>();
+        if (!Files.exists(HISTORY)) return out;
+        Properties p = new Properties();
+        try (var in = Files.newBufferedReader(HISTORY)) { p.load(in); }
+        catch (IOException e) { return out; }
+        p.forEach((k, v) -> {
+            String s = v.toString().trim();
+            boolean fail = s.endsWith(FAILED);
+            try { out.put(k.toString(), new Timing(Double.parseDouble(fail ? s.substring(0, s.length() - FAILED.length()) : s), fail)); }
+            catch (NumberFormatException ignored) { }
+        });
+        return out;
+    }
+}
@@ -1,31 +1,33 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.*;
 
 @DisplayName("Users API")
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class UserTest extends BaseTest {
 
-    private static List<String> genders;
+    private static final List<String> genders = Data.genders();
+    private static final List<String> cjkLocales = Data.cjkLocales();
+    private static final ObjectMapper mapper = new ObjectMapper();
 
     protected String endpoint() { return Api.USERS; }
     protected String schema() { return SCHEMAS + "user-schema.json"; }
 
-    @BeforeAll
-    static void setup() {
-        genders = toStringList(Json.list(DATA + "users.json", "genders"));
-    }
-
-    static Stream<String> locales() { return BaseTest.locales.stream(); }
-    static Stream<Integer> qtys() { return quantities.stream().map(o -> ((Number) o).intValue()); }
+    static Stream<Arguments> locales() { return prefetch(BaseTest.locales, l -> new Api.Request(Api.USERS).locale(l)); }
+    static Stream<Arguments> qtys() { return prefetch(quantities, q -> new Api.Request(Api.USERS).qty(q)); }
     static Stream<String> genderValues() { return genders.stream(); }
+    static Stream<String> localeValues() { return BaseTest.locales.stream(); }
 
     @Test @Order(1)
     void defaultRequest() {
@@ -34,26 +36,28 @@ class UserTest extends BaseTest {
 
     @Test @Order(2)
     void schemaTest() {
-        Response res = new Api.Request(endpoint()).qty(3).send();
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
         assertOk(res);
         assertSchema(res);
     }
 
-    @ParameterizedTest @Order(3) @MethodSource("locales")
-    void localeTest(String locale) {
-        assertEquals(locale, fetchLocale(locale).jsonPath().getString("locale"));
+    @ParameterizedTest(name = "[{index}] {0}") @Order(3) @MethodSource("locales")
+    void localeTest(String locale, CompletableFuture<Response> pending) {
+        Response res = await(pending);
+        assertOk(res);
+        assertEquals(locale, Payload.of(res).text("locale"));
     }
 
-    @ParameterizedTest @Order(4) @MethodSource("qtys")
-    void quantityTest(int qty) {
-        Response res = fetch(qty);
+    @ParameterizedTest(name = "[{index}] {0}") @Order(4) @MethodSource("qtys")
+    void quantityTest(int qty, CompletableFuture<Response> pending) {
+        Response res = await(pending);
         assertOk(res);
         assertCount(res, qty);
     }
 
-    @Test @Order(5)
-    void seedTest() {
-        verifySeed(((Number) seeds.get(0)).intValue());
+    @ParameterizedTest(name = "[{index}] seed {0}") @Order(5) @MethodSource("seedValues")
+    void seedTest(int seed) {
+        verifySeed(seed);
     }
 
     @ParameterizedTest @Order(6) @MethodSource("genderValues")
@@ -67,30 +71,21 @@ class UserTest extends BaseTest {
     void fieldsTest() {
         Response res = new Api.Request(endpoint()).qty(1).send();
         assertOk(res);
-        Map<String, Object> u = res.jsonPath().getMap("data[0]");
-        assertNotNull(u.get("id"));
-        assertNotNull(u.get("uuid"));
-        assertNotNull(u.get("firstname"));
-        assertNotNull(u.get("email"));
+        assertFields(Payload.of(res).item(0), "id", "uuid", "firstname", "email");
     }
 
     @Test @Order(8)
     void uuidTest() {
-        Response res = new Api.Request(endpoint()).qty(3).send();
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
         assertOk(res);
-        String pattern = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$";
-        for (Map<String, Object> u : res.jsonPath().<Map<String, Object>>getList("data")) {
-            assertThat((String) u.get("uuid"), matchesPattern(pattern));
-        }
+        assertEquals(3, Items.field(res, "uuid", uuid -> assertTrue(Formats.uuid(uuid), "Not a UUID: " + uuid)));
     }
 
     @Test @Order(9)
     void emailTest() {
-        Response res = new Api.Request(endpoint()).qty(3).send();
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
         assertOk(res);
-        for (Map<String, Object> u : res.jsonPath().<Map<String, Object>>getList("data")) {
-            assertThat((String) u.get("email"), containsString("@"));
-        }
+        assertEquals(3, Items.field(res, "email", email -> assertTrue(Formats.email(email), "Not an email: " + email)));
     }
 
     @Test @Order(10)
@@ -100,5 +95,49 @@ class UserTest extends BaseTest {
         assertCount(res, 5);
         assertSchema(res);
     }
-}
 
+    @Test @Order(11) @Tag("bulk")
+    void bulkExportTest() throws Exception {
+        Path file = Path.of("target", "export", "users.ndjson");
+        Export.Job job = new Export.Job(endpoint()).locale("en_US").seed(777).to(file);
+        Export.Result first = job.total(2500).resume(false).run();
+        assertEquals(2500, first.records());
+        assertEquals(3, first.requests());
+
+        // Extending the same export resumes from its checkpoint, halfway through the third chunk
+        Export.Result more = job.total(3200).resume(true).run();
+        assertEquals(2500, more.resumedAt());
+        assertEquals(3200, more.records());
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3200, lines.size());
+        Set<String> uuids = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode item = mapper.readTree(lines.get(i));
+            assertEquals(i + 1, item.path("id").asInt());
+            assertTrue(uuids.add(item.path("uuid").asText()), "Duplicate uuid on line " + (i + 1));
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}") @Order(12) @MethodSource("localeValues") @Tag("bulk")
+    @DisplayName("Names are written in the locale's script")
+    void nameScriptTest(String locale) {
+        var kind = cjkLocales.contains(locale) ? Population.Script.Kind.CJK : Population.Script.Kind.LATIN;
+        assertPopulation(Population.sample(endpoint()).locale(locale)
+                .on("firstname", new Population.Script(kind, 0.95)).on("lastname", new Population.Script(kind, 0.95)));
+    }
+
+    @Test @Order(13)
+    void ipTest() {
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
+        assertOk(res);
+        assertEquals(3, Items.field(res, "ip", ip -> assertTrue(Formats.ipv4(ip), "Not an IPv4 address: " + ip)));
+    }
+
+    @Test @Order(14)
+    void macTest() {
+        Response res = new Api.Request(endpoint()).qty(3).shared().send();
+        assertOk(res);
+        assertEquals(3, Items.field(res, "macAddress", mac -> assertTrue(Formats.mac(mac), "Not a MAC address: " + mac)));
+    }
+}